@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import estructuras.ColaConcurrente;
+import estructuras.ColaLockFree;
+import estructuras.ThreadSafeQueue;
+import modelos.ProcessControlBlock;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark de contención: mide el throughput de encolado/desencolado con
+ * 1..N hilos productores y un consumidor (patrón de inyección masiva + Planificador).
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkContencionColas [maxProductores] [opsPorProductor]
+ */
+public class BenchmarkContencionColas {
+
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxProductores = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int opsPorProductor = (args.length > 1) ? Integer.parseInt(args[1]) : 200_000;
+
+        ProcessControlBlock[] plantillas = new ProcessControlBlock[opsPorProductor];
+        for (int i = 0; i < opsPorProductor; i++) {
+            plantillas[i] = new ProcessControlBlock("P" + i, "Bench_" + i, 10, 1, 100, false, 0, 0);
+        }
+
+        System.out.printf("%-12s %-16s %-16s%n", "Productores", "ThreadSafeQueue", "ColaLockFree");
+        for (int productores = 1; productores <= maxProductores; productores++) {
+            double semaforo = medir(ThreadSafeQueue::new, productores, plantillas);
+            double lockFree = medir(ColaLockFree::new, productores, plantillas);
+            System.out.printf("%-12d %-16s %-16s%n", productores, formatear(semaforo), formatear(lockFree));
+        }
+    }
+
+    /**
+     * Ejecuta varias repeticiones y retorna la mejor tasa observada (ops/segundo).
+     */
+    private static double medir(Supplier<ColaConcurrente> fabrica, int productores, ProcessControlBlock[] plantillas)
+            throws InterruptedException {
+        double mejor = 0;
+        for (int r = 0; r < REPETICIONES; r++) {
+            mejor = Math.max(mejor, ejecutarRonda(fabrica.get(), productores, plantillas));
+        }
+        return mejor;
+    }
+
+    private static double ejecutarRonda(ColaConcurrente cola, int productores, ProcessControlBlock[] plantillas)
+            throws InterruptedException {
+        long totalOps = (long) productores * plantillas.length;
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] hilos = new Thread[productores];
+
+        for (int p = 0; p < productores; p++) {
+            hilos[p] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (ProcessControlBlock pcb : plantillas) {
+                    cola.encolar(pcb);
+                }
+            }, "Bench-Productor-" + p);
+            hilos[p].start();
+        }
+
+        long inicio = System.nanoTime();
+        salida.countDown();
+        long consumidos = 0;
+        while (consumidos < totalOps) {
+            if (cola.desencolar() != null) {
+                consumidos++;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        long transcurrido = System.nanoTime() - inicio;
+
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        // Cada elemento cuenta como un encolado más un desencolado
+        return (2.0 * totalOps) / (transcurrido / 1_000_000_000.0);
+    }
+
+    private static String formatear(double opsPorSegundo) {
+        return String.format("%.2f Mops/s", opsPorSegundo / 1_000_000.0);
+    }
+}
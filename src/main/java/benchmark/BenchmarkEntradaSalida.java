@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.DispositivoIO;
+import hardware.Procesador;
+import hardware.RelojSistema;
+import interrupciones.GestorEntradaSalida;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import planificacion.Planificador;
+import planificacion.PoliticaRR;
+import simulacion.MotorEventosDiscretos;
+import java.util.Random;
+
+/**
+ * Carga dominada por E/S: decenas de miles de tareas que calculan un poco, piden
+ * E/S y terminan. Todas las esperas viven en la rueda del GestorEntradaSalida,
+ * así que la cantidad de hilos no crece con las solicitudes en curso.
+ * Las tareas se reparten entre un disco (SSTF, un canal), la radio (FIFO, un
+ * canal lento) y el bus de sensores (FIFO, cuatro canales): el resumen de cada
+ * dispositivo muestra cuál se satura antes que la CPU.
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkEntradaSalida [tareas] [semilla]
+ */
+public class BenchmarkEntradaSalida {
+
+    private static final int CICLOS_ENTRE_LLEGADAS = 16;
+    private static final int PERIODO_MUESTREO = 100;
+
+    private static int maximoEnCurso = 0;
+
+    public static void main(String[] args) {
+        int tareas = (args.length > 0) ? Integer.parseInt(args[0]) : 50_000;
+        long semilla = (args.length > 1) ? Long.parseLong(args[1]) : 7L;
+
+        RelojSistema reloj = new RelojSistema(0); // Nunca se inicia su hilo
+        Procesador cpu = new Procesador();
+        reloj.setProcesador(cpu);
+
+        GestorMemoria gestor = new GestorMemoria(tareas);
+        gestor.setRelojSistema(reloj);
+        Planificador planificador = new Planificador(gestor, cpu, new PoliticaRR(4));
+        GestorEntradaSalida entradaSalida = new GestorEntradaSalida(gestor, reloj);
+        entradaSalida.agregarNucleo(cpu, planificador);
+        DispositivoIO disco = new DispositivoIO("DISCO", DispositivoIO.Disciplina.SSTF, 1, 4, 16);
+        disco.setCiclosPorPista(1);
+        entradaSalida.registrarDispositivo(disco);
+        entradaSalida.registrarDispositivo(new DispositivoIO("RADIO", DispositivoIO.Disciplina.FIFO, 1, 10, 2));
+        entradaSalida.registrarDispositivo(new DispositivoIO("BUS_SENSORES", DispositivoIO.Disciplina.FIFO, 4, 2, 8));
+        String[] destinos = {"DISCO", "RADIO", "BUS_SENSORES", GestorEntradaSalida.DISPOSITIVO_GENERICO};
+
+        MotorEventosDiscretos motor = new MotorEventosDiscretos(reloj, semilla);
+        motor.agregarPlanificador(planificador);
+        motor.conectarGestor(gestor);
+
+        Random azar = motor.getAleatorio();
+        int ultimaLlegada = tareas * CICLOS_ENTRE_LLEGADAS;
+        for (int i = 0; i < tareas; i++) {
+            int inst = 4 + azar.nextInt(16);
+            ProcessControlBlock pcb = new ProcessControlBlock("P" + i, "Sensor", inst, 1, 100_000,
+                    true, 1 + azar.nextInt(inst - 1), 1 + azar.nextInt(100));
+            pcb.setDispositivoIO(destinos[azar.nextInt(destinos.length)]);
+            pcb.setPosicionIO(azar.nextInt(1_000));
+            motor.programarLlegada(azar.nextInt(ultimaLlegada), pcb, gestor);
+        }
+        muestrear(motor, entradaSalida, 0);
+
+        int hilosAntes = Thread.activeCount();
+        long inicio = System.nanoTime();
+        int alcanzado = motor.ejecutarHasta(ultimaLlegada + 50_000);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("Tareas           : %,d (%,d terminadas)%n", tareas, planificador.getProcesosTerminados());
+        System.out.printf("E/S              : %,d iniciadas, %,d completadas, máx. %,d pendientes%n",
+                entradaSalida.getSolicitudesIniciadas(), entradaSalida.getSolicitudesCompletadas(), maximoEnCurso);
+        for (DispositivoIO dispositivo : entradaSalida.getDispositivos()) {
+            System.out.printf("  %s%n", dispositivo.resumen(alcanzado));
+        }
+        System.out.printf("Hilos vivos      : %d antes, %d después%n", hilosAntes, Thread.activeCount());
+        System.out.printf("Ciclos simulados : %,d en %.2f s (%,.0f ciclos/s)%n", alcanzado, segundos, alcanzado / segundos);
+        System.out.printf("Utilización CPU  : %.1f%%%n", 100.0 * cpu.getUtilizacion());
+    }
+
+    private static void muestrear(MotorEventosDiscretos motor, GestorEntradaSalida entradaSalida, int desde) {
+        motor.programar(desde + PERIODO_MUESTREO, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            int pendientes = entradaSalida.getSolicitudesEnCurso() + entradaSalida.getSolicitudesEnEspera();
+            maximoEnCurso = Math.max(maximoEnCurso, pendientes);
+            if (pendientes > 0 || motor.getEventosPendientes() > 0) {
+                muestrear(motor, entradaSalida, ciclo);
+            }
+        });
+    }
+}
\ No newline at end of file
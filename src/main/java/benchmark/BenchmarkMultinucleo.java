@@ -0,0 +1,107 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.OyenteReloj;
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import motor.MonitorDeadlines;
+import planificacion.BalanceadorCarga;
+import planificacion.Planificador;
+import planificacion.PoliticaEDF;
+import java.util.Random;
+
+/**
+ * Benchmark de escalamiento multinúcleo: ejecuta la misma carga de tareas con
+ * llegadas escalonadas sobre 1..N núcleos (EDF por núcleo + robo de trabajo) y
+ * reporta ciclos hasta vaciar el sistema, throughput y tasa de deadlines cumplidos.
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkMultinucleo [maxNucleos] [tareas] [msPorCiclo]
+ */
+public class BenchmarkMultinucleo {
+
+    private static final long SEMILLA = 42L;
+    private static final int HORIZONTE_LLEGADAS = 2000;
+    private static final int LIMITE_CICLOS = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxNucleos = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        int tareas = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        int msPorCiclo = (args.length > 2) ? Integer.parseInt(args[2]) : 1;
+
+        System.out.printf("%-8s %-10s %-22s %-12s %-8s %-12s%n",
+                "Núcleos", "Ciclos", "Throughput", "Deadlines", "Robos", "Utilización");
+        for (int n = 1; n <= maxNucleos; n++) {
+            ejecutarRonda(n, tareas, msPorCiclo);
+        }
+    }
+
+    private static void ejecutarRonda(int cantidadNucleos, int tareas, int msPorCiclo) throws InterruptedException {
+        // Misma carga en todas las rondas: semilla fija y llegadas ordenadas por ciclo
+        Random azar = new Random(SEMILLA);
+        ProcessControlBlock[] carga = new ProcessControlBlock[tareas];
+        int[] llegadas = new int[tareas];
+        for (int i = 0; i < tareas; i++) {
+            int inst = 10 + azar.nextInt(50);
+            int holgura = 50 + azar.nextInt(150);
+            carga[i] = new ProcessControlBlock("P" + i, "Bench_" + i, inst, 1 + azar.nextInt(5), inst + holgura, false, 0, 0);
+            llegadas[i] = (int) ((long) i * HORIZONTE_LLEGADAS / tareas);
+        }
+
+        RelojSistema reloj = new RelojSistema(msPorCiclo);
+        GestorMemoria gestor = new GestorMemoria(tareas); // Sin saturación: se mide solo la CPU
+        gestor.setRelojSistema(reloj);
+        MonitorDeadlines monitor = new MonitorDeadlines(reloj);
+        reloj.agregarOyente(monitor);
+        gestor.setMonitorDeadlines(monitor);
+
+        Procesador[] cpus = new Procesador[cantidadNucleos];
+        for (int i = 0; i < cantidadNucleos; i++) {
+            cpus[i] = new Procesador(i);
+        }
+        BalanceadorCarga balanceador = new BalanceadorCarga(gestor, cpus, PoliticaEDF::new);
+        balanceador.conectarReloj(reloj);
+
+        // Inyector sincronizado con el reloj: cada tarea entra en su ciclo de llegada
+        int[] siguiente = {0};
+        reloj.agregarOyente(ciclo -> {
+            while (siguiente[0] < tareas && llegadas[siguiente[0]] <= ciclo) {
+                gestor.solicitarAdmision(carga[siguiente[0]++]);
+            }
+        });
+
+        Thread hiloReloj = new Thread(reloj, "Bench-Reloj");
+        balanceador.iniciar();
+        hiloReloj.start();
+
+        int terminados = 0;
+        while (terminados < tareas && reloj.getCicloGlobal() < LIMITE_CICLOS) {
+            Thread.sleep(20);
+            terminados = 0;
+            for (Planificador nucleo : balanceador.getNucleos()) {
+                terminados += nucleo.getProcesosTerminados();
+            }
+        }
+        int ciclos = reloj.getCicloGlobal();
+        reloj.detenerReloj();
+        balanceador.detener();
+        hiloReloj.join();
+
+        int cumplidos = 0;
+        double utilizacion = 0;
+        for (Planificador nucleo : balanceador.getNucleos()) {
+            cumplidos += nucleo.getDeadlinesCumplidos();
+            utilizacion += nucleo.getProcesador().getUtilizacion();
+        }
+        System.out.printf("%-8d %-10d %-22s %-12s %-8d %-12s%n",
+                cantidadNucleos, ciclos,
+                String.format("%.2f tareas/kciclo", 1000.0 * terminados / Math.max(1, ciclos)),
+                String.format("%.1f%%", 100.0 * cumplidos / Math.max(1, terminados)),
+                balanceador.getProcesosRobados(),
+                String.format("%.1f%%", 100.0 * utilizacion / cantidadNucleos));
+    }
+}
\ No newline at end of file
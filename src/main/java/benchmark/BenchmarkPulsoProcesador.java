@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.HistogramaLatencia;
+import hardware.Procesador;
+import modelos.ProcessControlBlock;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Benchmark del camino del pulso: mide la latencia de Procesador.ejecutarCiclo
+ * mientras 0..N hilos observadores (GUI, balanceador) leen la CPU sin pausa y un
+ * despachador desaloja y reasigna procesos continuamente.
+ * Con la referencia atómica la latencia debe quedar plana al crecer la contención.
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkPulsoProcesador [maxObservadores] [pulsos]
+ */
+public class BenchmarkPulsoProcesador {
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxObservadores = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        int pulsos = (args.length > 1) ? Integer.parseInt(args[1]) : 2_000_000;
+
+        System.out.printf("%-14s %s%n", "Observadores", "Latencia de ejecutarCiclo");
+        for (int observadores = 0; observadores <= maxObservadores; observadores++) {
+            System.out.printf("%-14d %s%n", observadores, ejecutarRonda(observadores, pulsos).resumen());
+        }
+    }
+
+    private static HistogramaLatencia ejecutarRonda(int observadores, int pulsos) throws InterruptedException {
+        Procesador cpu = new Procesador();
+        ProcessControlBlock pcb = new ProcessControlBlock("P0", "Bench", Integer.MAX_VALUE, 1, Integer.MAX_VALUE, false, 0, 0);
+        cpu.asignarProceso(pcb);
+        AtomicBoolean activo = new AtomicBoolean(true);
+
+        Thread[] hilos = new Thread[observadores + 1];
+        // Despachador: cambios de contexto constantes sobre la misma CPU
+        hilos[0] = new Thread(() -> {
+            while (activo.get()) {
+                ProcessControlBlock sale = cpu.desalojarProceso();
+                cpu.asignarProceso(sale != null ? sale : pcb);
+            }
+        });
+        for (int i = 1; i <= observadores; i++) {
+            hilos[i] = new Thread(() -> {
+                long vistos = 0;
+                while (activo.get()) {
+                    if (cpu.getProcesoActualSeguro() != null) {
+                        vistos++;
+                    }
+                }
+                if (vistos < 0) {
+                    System.out.println(vistos); // Evita que el JIT elimine el bucle
+                }
+            });
+        }
+        for (Thread hilo : hilos) {
+            hilo.start();
+        }
+
+        HistogramaLatencia latencia = new HistogramaLatencia();
+        for (int ciclo = 1; ciclo <= pulsos; ciclo++) {
+            long inicio = System.nanoTime();
+            cpu.ejecutarCiclo(ciclo);
+            latencia.registrar(System.nanoTime() - inicio);
+        }
+
+        activo.set(false);
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        return latencia;
+    }
+}
\ No newline at end of file
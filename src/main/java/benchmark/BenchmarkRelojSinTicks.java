@@ -0,0 +1,119 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reloj sin ticks en tiempo real: el hilo del reloj corre de verdad mientras un
+ * despachador corta lotes (desaloja y reasigna el proceso) y otro hilo los acota
+ * como lo haría una interrupción programada. Un lector consulta getCicloGlobal()
+ * sin pausa y cuenta cualquier retroceso, que debe ser cero.
+ *
+ * Cada periodo corre pulso a pulso y sin ticks; se comparan los lotes, los cortes,
+ * el CPU que consumió el hilo del reloj y que los ciclos del proceso coincidan
+ * con los del reloj. Los pulsos descartados son atrasos del host (el lector gira
+ * sin pausa), no ciclos perdidos por los lotes.
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkRelojSinTicks [segundos] [semilla]
+ */
+public class BenchmarkRelojSinTicks {
+
+    private static final int[] PERIODOS_MS = {1, 5};
+
+    // Milisegundos promedio entre cortes del despachador y entre cotas de interrupción
+    private static final int SEPARACION_CORTES_MS = 20;
+    private static final int SEPARACION_COTAS_MS = 7;
+
+    public static void main(String[] args) throws InterruptedException {
+        int segundos = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        long semilla = (args.length > 1) ? Long.parseLong(args[1]) : 42L;
+
+        System.out.printf("%-8s %-9s %-9s %-9s %-9s %-11s %-11s %-12s %s%n",
+                "Periodo", "Modo", "Ciclos", "Lotes", "Cortados", "Retrocesos", "Descartados", "CPU reloj", "Ciclos CPU/reloj");
+        for (int periodo : PERIODOS_MS) {
+            for (boolean sinTicks : new boolean[] {false, true}) {
+                ejecutarRonda(periodo, sinTicks, segundos, semilla);
+            }
+        }
+    }
+
+    private static void ejecutarRonda(int periodoMs, boolean sinTicks, int segundos, long semilla) throws InterruptedException {
+        Procesador cpu = new Procesador();
+        RelojSistema reloj = new RelojSistema(periodoMs);
+        reloj.setProcesador(cpu);
+        reloj.setModoSinTicks(sinTicks);
+        ProcessControlBlock pcb = new ProcessControlBlock("P0", "Bench", Integer.MAX_VALUE, 1, Integer.MAX_VALUE, false, 0, 0);
+        cpu.asignarProceso(pcb);
+
+        AtomicBoolean activo = new AtomicBoolean(true);
+        long[] retrocesos = new long[1];
+
+        // Despachador: cada cambio de contexto corta el lote en curso
+        Thread despachador = new Thread(() -> {
+            Random aleatorio = new Random(semilla);
+            while (activo.get()) {
+                dormir(1 + aleatorio.nextInt(2 * SEPARACION_CORTES_MS));
+                ProcessControlBlock sale = cpu.desalojarProceso();
+                cpu.asignarProceso(sale != null ? sale : pcb);
+            }
+        }, "Bench-Despachador");
+        // Interrupciones programadas unos ciclos adelante: solo acortan el lote
+        Thread interrupciones = new Thread(() -> {
+            Random aleatorio = new Random(semilla + 1);
+            while (activo.get()) {
+                dormir(1 + aleatorio.nextInt(2 * SEPARACION_COTAS_MS));
+                reloj.acotarLote(reloj.getCicloGlobal() + 1 + aleatorio.nextInt(8));
+            }
+        }, "Bench-Interrupciones");
+        Thread lector = new Thread(() -> {
+            int anterior = 0;
+            while (activo.get()) {
+                int ciclo = reloj.getCicloGlobal();
+                if (ciclo < anterior) {
+                    retrocesos[0]++;
+                }
+                anterior = Math.max(anterior, ciclo);
+            }
+        }, "Bench-Lector");
+        Thread hiloReloj = new Thread(reloj, "Bench-Reloj");
+
+        hiloReloj.start();
+        despachador.start();
+        interrupciones.start();
+        lector.start();
+        Thread.sleep(segundos * 1000L);
+
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        long cpuReloj = hilos.isThreadCpuTimeSupported() ? hilos.getThreadCpuTime(hiloReloj.threadId()) : -1;
+        activo.set(false);
+        despachador.join();
+        interrupciones.join();
+        lector.join();
+        reloj.detenerReloj();
+        hiloReloj.join();
+
+        int ciclos = reloj.getCicloGlobal();
+        System.out.printf("%-8s %-9s %-9d %-9d %-9d %-11d %-11d %-12s %d/%d%n",
+                periodoMs + " ms", sinTicks ? "sin ticks" : "pulsos", ciclos,
+                reloj.getLotesEjecutados(), reloj.getLotesCortados(), retrocesos[0], reloj.getPulsosDescartados(),
+                (cpuReloj < 0) ? "n/d" : String.format("%.1f ms", cpuReloj / 1e6),
+                cpu.getCiclosTotales(), ciclos);
+    }
+
+    private static void dormir(int ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
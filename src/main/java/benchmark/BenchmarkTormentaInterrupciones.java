@@ -0,0 +1,129 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.Procesador;
+import hardware.RelojSistema;
+import interrupciones.ControladorInterrupciones;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import motor.MonitorDeadlines;
+import planificacion.Planificador;
+import planificacion.PoliticaEDF;
+import simulacion.MotorEventosDiscretos;
+import java.util.Random;
+
+/**
+ * Tormenta de interrupciones en tiempo virtual: la misma carga periódica corre
+ * bajo tasas crecientes de interrupciones repartidas en cuatro líneas anidables
+ * (la más alta, una lluvia de micro-meteoritos).
+ * Cada fila muestra cuánto de la CPU se llevaron las mitades superior e inferior
+ * y cuánto trabajo útil quedó, para ver que la degradación es proporcional a la
+ * tasa en lugar de congelar el sistema.
+ *
+ * Cada tasa corre dos veces: "libre" (solo coalescencia) y "control", con un
+ * limitador por línea y un presupuesto de PRESUPUESTO de cada VENTANA ciclos;
+ * en ese modo la suma superior + inferior no debería pasar del presupuesto.
+ *
+ * Uso: java -cp target/classes benchmark.BenchmarkTormentaInterrupciones [ciclos] [semilla]
+ */
+public class BenchmarkTormentaInterrupciones {
+
+    // Ciclos promedio entre interrupciones (0 = sin tormenta)
+    private static final int[] SEPARACIONES = {0, 400, 100, 40, 20, 10};
+
+    // Presupuesto del modo "control": ciclos de rutina permitidos por ventana
+    private static final int PRESUPUESTO = 25;
+    private static final int VENTANA = 100;
+
+    private static int contadorIds = 0;
+
+    public static void main(String[] args) {
+        int ciclos = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        long semilla = (args.length > 1) ? Long.parseLong(args[1]) : 11L;
+
+        System.out.printf("%-10s %-8s %-8s %-9s %-9s %-8s %-10s %-12s %-12s %s%n",
+                "Separación", "Modo", "Útil", "Superior", "Inferior", "Tareas", "Deadlines",
+                "Coalescidas", "Descartadas", "Pendientes/diferidas al final");
+        for (int separacion : SEPARACIONES) {
+            ejecutarRonda(ciclos, semilla, separacion, false);
+            if (separacion > 0) {
+                ejecutarRonda(ciclos, semilla, separacion, true);
+            }
+        }
+    }
+
+    private static void ejecutarRonda(int ciclos, long semilla, int separacion, boolean control) {
+        RelojSistema reloj = new RelojSistema(0); // Nunca se inicia su hilo
+        Procesador cpu = new Procesador();
+        reloj.setProcesador(cpu);
+        GestorMemoria gestor = new GestorMemoria(64);
+        gestor.setRelojSistema(reloj);
+        MonitorDeadlines monitor = new MonitorDeadlines(reloj);
+        reloj.agregarOyente(monitor);
+        gestor.setMonitorDeadlines(monitor);
+        Planificador planificador = new Planificador(gestor, cpu, new PoliticaEDF());
+
+        ControladorInterrupciones controlador = new ControladorInterrupciones(cpu, reloj);
+        int[] lineas = {
+            controlador.registrarLinea("Sensores", 10, 1, 3),
+            controlador.registrarLinea("Radio", 20, 2, 6),
+            controlador.registrarLinea("Watchdog", 40, 3, 0),
+            controlador.registrarLinea("Micro-Meteorito", ControladorInterrupciones.NIVEL_MAXIMO, 5, 20)
+        };
+        if (control) {
+            controlador.configurarLimite(lineas[0], 8, 20);
+            controlador.configurarLimite(lineas[1], 4, 50);
+            controlador.configurarLimite(lineas[2], 2, 100);
+            controlador.configurarLimite(lineas[3], 3, 100);
+            controlador.setPresupuesto(PRESUPUESTO, VENTANA);
+        }
+
+        MotorEventosDiscretos motor = new MotorEventosDiscretos(reloj, semilla);
+        motor.agregarPlanificador(planificador);
+        motor.conectarGestor(gestor);
+        controlador.setAlRetornar(motor::solicitarPasada);
+
+        programarPeriodica(motor, gestor, "Control", 25, 10, 0);
+        programarPeriodica(motor, gestor, "Telemetria", 60, 12, 7);
+        if (separacion > 0) {
+            programarTormenta(motor, controlador, lineas, separacion, 0);
+        }
+        int alcanzado = motor.ejecutarHasta(ciclos);
+
+        double total = Math.max(1, cpu.getCiclosTotales());
+        int terminados = planificador.getProcesosTerminados();
+        System.out.printf("%-10s %-8s %-8s %-9s %-9s %-8d %-10s %-12d %-12d %d/%d (anidamiento max %d)%n",
+                (separacion == 0) ? "-" : String.valueOf(separacion),
+                control ? "control" : "libre",
+                String.format("%.1f%%", 100.0 * cpu.getCiclosOcupados() / total),
+                String.format("%.1f%%", 100.0 * controlador.getCiclosMitadSuperior() / alcanzado),
+                String.format("%.1f%%", 100.0 * controlador.getCiclosMitadInferior() / alcanzado),
+                terminados,
+                String.format("%.1f%%", 100.0 * planificador.getDeadlinesCumplidos() / Math.max(1, terminados)),
+                controlador.getCoalescidas(), controlador.getDescartadas(),
+                controlador.getPendientes(), controlador.getMitadesInferioresEnEspera(), controlador.getProfundidadMaxima());
+    }
+
+    private static void programarPeriodica(MotorEventosDiscretos motor, GestorMemoria gestor,
+            String nombre, int periodo, int instrucciones, int fase) {
+        motor.programar(fase, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            ProcessControlBlock pcb = new ProcessControlBlock("P" + (contadorIds++), nombre,
+                    instrucciones, 1, periodo, false, 0, 0);
+            gestor.solicitarAdmision(pcb);
+            programarPeriodica(motor, gestor, nombre, periodo, instrucciones, ciclo + periodo);
+        });
+    }
+
+    private static void programarTormenta(MotorEventosDiscretos motor, ControladorInterrupciones controlador,
+            int[] lineas, int separacion, int desde) {
+        Random azar = motor.getAleatorio();
+        int llegada = desde + 1 + azar.nextInt(2 * separacion);
+        motor.programar(llegada, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            controlador.solicitar(lineas[azar.nextInt(lineas.length)]);
+            programarTormenta(motor, controlador, lineas, separacion, ciclo);
+        });
+    }
+}
\ No newline at end of file
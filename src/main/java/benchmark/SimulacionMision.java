@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package benchmark;
+
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import motor.MonitorDeadlines;
+import planificacion.Planificador;
+import planificacion.PoliticaEDF;
+import simulacion.MotorEventosDiscretos;
+import java.util.Random;
+
+/**
+ * Perfil de misión en tiempo virtual: tareas periódicas de telemetría y control
+ * de actitud, ráfagas aperiódicas de carga útil e interrupciones de hardware,
+ * simuladas con el MotorEventosDiscretos (sin hilos ni esperas).
+ * Con la misma semilla, dos corridas producen exactamente los mismos resultados.
+ *
+ * Uso: java -cp target/classes benchmark.SimulacionMision [ciclos] [semilla]
+ */
+public class SimulacionMision {
+
+    private static final int PERIODO_TELEMETRIA = 50;
+    private static final int PERIODO_ACTITUD = 20;
+    private static final int MEDIA_ENTRE_RAFAGAS = 400;
+    private static final int MEDIA_ENTRE_INTERRUPCIONES = 5_000;
+
+    private static int contadorIds = 0;
+
+    public static void main(String[] args) {
+        int ciclos = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+        long semilla = (args.length > 1) ? Long.parseLong(args[1]) : 42L;
+
+        RelojSistema reloj = new RelojSistema(0); // Nunca se inicia su hilo
+        Procesador cpu = new Procesador();
+        reloj.setProcesador(cpu);
+
+        GestorMemoria gestor = new GestorMemoria(64);
+        gestor.setRelojSistema(reloj);
+        MonitorDeadlines monitor = new MonitorDeadlines(reloj);
+        reloj.agregarOyente(monitor);
+        gestor.setMonitorDeadlines(monitor);
+
+        Planificador planificador = new Planificador(gestor, cpu, new PoliticaEDF());
+        MotorEventosDiscretos motor = new MotorEventosDiscretos(reloj, semilla);
+        motor.agregarPlanificador(planificador);
+        motor.conectarGestor(gestor);
+
+        // Tareas periódicas: cada instancia programa la llegada de la siguiente
+        programarPeriodica(motor, gestor, "Telemetria", PERIODO_TELEMETRIA, 8, 0);
+        programarPeriodica(motor, gestor, "Actitud", PERIODO_ACTITUD, 3, 5);
+        programarRafaga(motor, gestor, 0);
+        programarInterrupcion(motor, 0);
+
+        long inicio = System.nanoTime();
+        int alcanzado = motor.ejecutarHasta(ciclos);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int terminados = planificador.getProcesosTerminados();
+        System.out.printf("Ciclos simulados : %,d%n", alcanzado);
+        System.out.printf("Tiempo real      : %.2f s (%,.0f ciclos/s)%n", segundos, alcanzado / segundos);
+        System.out.printf("Eventos          : %,d%n", motor.getEventosProcesados());
+        System.out.printf("Tareas terminadas: %,d%n", terminados);
+        System.out.printf("Deadlines        : %.2f%% cumplidos (%,d vencidos)%n",
+                100.0 * planificador.getDeadlinesCumplidos() / Math.max(1, terminados), monitor.getTotalVencidos());
+        System.out.printf("Utilización CPU  : %.1f%%%n", 100.0 * cpu.getUtilizacion());
+    }
+
+    private static void programarPeriodica(MotorEventosDiscretos motor, GestorMemoria gestor,
+            String nombre, int periodo, int instrucciones, int fase) {
+        motor.programar(fase, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            ProcessControlBlock pcb = new ProcessControlBlock("P" + (contadorIds++), nombre,
+                    instrucciones, 1, periodo, false, 0, 0);
+            gestor.solicitarAdmision(pcb);
+            programarPeriodica(motor, gestor, nombre, periodo, instrucciones, ciclo + periodo);
+        });
+    }
+
+    private static void programarRafaga(MotorEventosDiscretos motor, GestorMemoria gestor, int desde) {
+        Random azar = motor.getAleatorio();
+        int llegada = desde + 1 + azar.nextInt(2 * MEDIA_ENTRE_RAFAGAS);
+        motor.programar(llegada, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            int tareas = 1 + azar.nextInt(4);
+            for (int i = 0; i < tareas; i++) {
+                int inst = 5 + azar.nextInt(40);
+                ProcessControlBlock pcb = new ProcessControlBlock("P" + (contadorIds++), "CargaUtil",
+                        inst, 3, inst + 50 + azar.nextInt(300), false, 0, 0);
+                gestor.solicitarAdmision(pcb);
+            }
+            programarRafaga(motor, gestor, ciclo);
+        });
+    }
+
+    private static void programarInterrupcion(MotorEventosDiscretos motor, int desde) {
+        Random azar = motor.getAleatorio();
+        int llegada = desde + 1 + azar.nextInt(2 * MEDIA_ENTRE_INTERRUPCIONES);
+        motor.programar(llegada, MotorEventosDiscretos.CLASE_EXTERNO, ciclo -> {
+            motor.programarInterrupcion(ciclo, 0, 5 + azar.nextInt(20));
+            programarInterrupcion(motor, ciclo);
+        });
+    }
+}
\ No newline at end of file
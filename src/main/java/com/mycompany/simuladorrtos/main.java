@@ -6,8 +6,13 @@ package com.mycompany.simuladorrtos;
 
 import hardware.Procesador;
 import hardware.RelojSistema;
+import interrupciones.ControladorInterrupciones;
+import interrupciones.GestorEntradaSalida;
 import interrupciones.InyectorEventos;
+import motor.ControlAdmision;
 import motor.GestorMemoria;
+import motor.MonitorDeadlines;
+import planificacion.GestorSobrecarga;
 import planificacion.Planificador;
 import planificacion.PoliticaFCFS; 
 import gui.DashboardGUI;
@@ -33,22 +38,61 @@ public class main {
         // El spinner de la GUI arranca en 1000ms, inicializamos el reloj igual
         RelojSistema reloj = new RelojSistema(1000); 
         reloj.setProcesador(cpu); // ¡Conexión vital descubierta en tu código!
+        // Sin ticks: con pulsos de 1000 ms el reloj duerme hasta el próximo ciclo en que
+        // algo cambia y lo ejecuta en lote; la GUI permite volver al pulso a pulso
+        reloj.setModoSinTicks(true);
 
         // ---------------------------------------------------------
         // 2. INICIALIZACIÓN DEL SISTEMA OPERATIVO (MOTOR)
         // ---------------------------------------------------------
         GestorMemoria gestorMemoria = new GestorMemoria(5); // RAM limitada a 5 procesos
+        gestorMemoria.setRelojSistema(reloj); // Deadlines absolutos: llegada + deadline relativo
+
+        // Rueda de temporizadores: vigila el deadline de cada proceso admitido en cada pulso
+        MonitorDeadlines monitorDeadlines = new MonitorDeadlines(reloj);
+        reloj.agregarOyente(monitorDeadlines);
+        gestorMemoria.setMonitorDeadlines(monitorDeadlines);
+
+        // Control de admisión (un núcleo): el planificador le fija la prueba que vale
+        // para su política activa, también cuando la GUI la cambia
+        ControlAdmision controlAdmision = new ControlAdmision(gestorMemoria, reloj, 1);
         
         Planificador planificador = new Planificador(gestorMemoria, cpu, new PoliticaFCFS());
+
+        // Ante ráfagas, los procesos que ya no pueden cumplir su deadline (en espera o en
+        // la CPU) se difieren hasta que la cola quede vacía. DIFERIR funciona con cualquier
+        // política; DEGRADAR no reordena en las colas FIFO (FCFS, RR)
+        GestorSobrecarga gestorSobrecarga = new GestorSobrecarga(gestorMemoria, reloj,
+                GestorSobrecarga.AccionSobrecarga.DIFERIR);
+        gestorSobrecarga.vigilarPlanificador(planificador);
         
+        // E/S por ciclos del reloj: la CPU atrapa la solicitud y una rueda avisa su fin
+        GestorEntradaSalida entradaSalida = new GestorEntradaSalida(gestorMemoria, reloj);
+        entradaSalida.agregarNucleo(cpu, planificador);
+
         InyectorEventos inyector = new InyectorEventos(cpu, gestorMemoria);
 
+        // Cada proceso inyectado pasa la prueba de admisión antes de entrar
+        inyector.setControlAdmision(controlAdmision);
+
+        // Interrupciones por niveles medidas en ciclos: nunca duermen ni bloquean la CPU
+        ControladorInterrupciones controladorInterrupciones = new ControladorInterrupciones(cpu, reloj);
+        inyector.setControladorInterrupciones(controladorInterrupciones);
+
+        // Ante tormentas, las rutinas no pueden tomar más de 25 de cada 100 ciclos
+        controladorInterrupciones.setPresupuesto(25, 100);
+
+        // Eventos que despiertan al planificador: cada pulso y cada retorno de interrupción
+        reloj.agregarOyente(planificador);
+        controladorInterrupciones.setAlRetornar(planificador::notificarEvento);
+
         // ---------------------------------------------------------
         // 3. INICIALIZACIÓN DE LA INTERFAZ GRÁFICA (GUI)
         // ---------------------------------------------------------
         SwingUtilities.invokeLater(() -> {
             DashboardGUI ventana = new DashboardGUI(gestorMemoria, cpu, reloj);
             ventana.configurarListeners(inyector, planificador);
+            ventana.setGestorSobrecarga(gestorSobrecarga);
             ventana.agregarLog("Boot completo. Sistema Operativo listo y a la espera.");
              
             // ---------------------------------------------------------
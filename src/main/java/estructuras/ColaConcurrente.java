@@ -0,0 +1,25 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Contrato mínimo de una cola de procesos segura para múltiples hilos.
+ * Lo cumplen tanto ThreadSafeQueue (semáforo) como ColaLockFree (CAS).
+ */
+public interface ColaConcurrente {
+
+    void encolar(ProcessControlBlock pcb);
+
+    /**
+     * @return El proceso más antiguo, o null si la cola está vacía.
+     */
+    ProcessControlBlock desencolar();
+
+    ProcessControlBlock[] obtenerSnapshot();
+
+    int obtenerTamanoSeguro();
+}
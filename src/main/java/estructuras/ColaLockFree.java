@@ -0,0 +1,141 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cola FIFO sin bloqueos (lock-free) para múltiples productores y consumidores,
+ * según el algoritmo de Michael y Scott. Los enlaces se actualizan con CAS vía VarHandle,
+ * por lo que ningún hilo queda suspendido esperando a otro.
+ *
+ * Pensada para la inyección masiva de procesos: los productores nunca compiten
+ * por el semáforo de la cola de listos.
+ */
+public class ColaLockFree implements ColaConcurrente {
+
+    /**
+     * Nodo propio de la cola: el enlace 'siguiente' se publica con CAS.
+     */
+    private static final class NodoLF {
+        private ProcessControlBlock pcb;
+        private volatile NodoLF siguiente;
+
+        NodoLF(ProcessControlBlock pcb) {
+            this.pcb = pcb;
+        }
+    }
+
+    private static final VarHandle CABEZA;
+    private static final VarHandle COLA;
+    private static final VarHandle SIGUIENTE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CABEZA = lookup.findVarHandle(ColaLockFree.class, "cabeza", NodoLF.class);
+            COLA = lookup.findVarHandle(ColaLockFree.class, "cola", NodoLF.class);
+            SIGUIENTE = lookup.findVarHandle(NodoLF.class, "siguiente", NodoLF.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 'cabeza' apunta siempre a un nodo centinela; el primer elemento real es cabeza.siguiente
+    private volatile NodoLF cabeza;
+    private volatile NodoLF cola;
+    private final AtomicInteger tamano;
+
+    public ColaLockFree() {
+        NodoLF centinela = new NodoLF(null);
+        this.cabeza = centinela;
+        this.cola = centinela;
+        this.tamano = new AtomicInteger(0);
+    }
+
+    @Override
+    public void encolar(ProcessControlBlock pcb) {
+        NodoLF nuevo = new NodoLF(pcb);
+        while (true) {
+            NodoLF ultimo = cola;
+            NodoLF siguiente = ultimo.siguiente;
+            if (ultimo != cola) {
+                continue; // Otro hilo movió la cola mientras leíamos
+            }
+            if (siguiente == null) {
+                if (SIGUIENTE.compareAndSet(ultimo, null, nuevo)) {
+                    // Intento de avanzar la cola; si falla, otro hilo ya lo hizo por nosotros
+                    COLA.compareAndSet(this, ultimo, nuevo);
+                    tamano.incrementAndGet();
+                    return;
+                }
+            } else {
+                // La cola quedó rezagada: ayudar a avanzarla antes de reintentar
+                COLA.compareAndSet(this, ultimo, siguiente);
+            }
+        }
+    }
+
+    @Override
+    public ProcessControlBlock desencolar() {
+        while (true) {
+            NodoLF primero = cabeza;
+            NodoLF ultimo = cola;
+            NodoLF siguiente = primero.siguiente;
+            if (primero != cabeza) {
+                continue;
+            }
+            if (primero == ultimo) {
+                if (siguiente == null) {
+                    return null; // Cola vacía
+                }
+                COLA.compareAndSet(this, ultimo, siguiente);
+            } else if (CABEZA.compareAndSet(this, primero, siguiente)) {
+                // 'siguiente' pasa a ser el nuevo centinela: se suelta su PCB para el GC
+                ProcessControlBlock pcb = siguiente.pcb;
+                siguiente.pcb = null;
+                tamano.decrementAndGet();
+                return pcb;
+            }
+        }
+    }
+
+    /**
+     * Recorrido débilmente consistente: refleja un estado válido reciente
+     * pero puede no incluir inserciones concurrentes.
+     */
+    @Override
+    public ProcessControlBlock[] obtenerSnapshot() {
+        int capacidad = Math.max(tamano.get(), 0);
+        ProcessControlBlock[] snapshot = new ProcessControlBlock[capacidad];
+        int i = 0;
+        NodoLF actual = cabeza.siguiente;
+        while (actual != null && i < capacidad) {
+            ProcessControlBlock pcb = actual.pcb;
+            if (pcb != null) {
+                snapshot[i++] = pcb;
+            }
+            actual = actual.siguiente;
+        }
+        if (i == capacidad) {
+            return snapshot;
+        }
+        ProcessControlBlock[] recortado = new ProcessControlBlock[i];
+        System.arraycopy(snapshot, 0, recortado, 0, i);
+        return recortado;
+    }
+
+    @Override
+    public int obtenerTamanoSeguro() {
+        return Math.max(tamano.get(), 0);
+    }
+
+    public boolean estaVacia() {
+        return cabeza.siguiente == null;
+    }
+}
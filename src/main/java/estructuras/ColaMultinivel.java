@@ -0,0 +1,175 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Cola multinivel con mapa de bits (planificador O(1)).
+ * Mantiene una FIFO doblemente enlazada por nivel de prioridad y un long cuyo
+ * bit i indica que el nivel i tiene procesos. El nivel más urgente (menor número)
+ * se obtiene con Long.numberOfTrailingZeros, sin importar cuántos procesos haya.
+ *
+ * Soporta hasta 64 niveles; las claves fuera de rango se acotan a [0, 63].
+ * No es thread-safe: la exclusión mutua la aporta ThreadSafeQueue.
+ */
+public class ColaMultinivel implements EstructuraCola {
+
+    public static final int NIVELES = 64;
+
+    private final CriterioOrden criterio;
+    private final boolean intrusiva;
+    private final IndiceId indice;
+    private final Node[] cabezas;
+    private final Node[] colas;
+    private long mapaNiveles;
+    private int tamano;
+
+    public ColaMultinivel(CriterioOrden criterio) {
+        this(criterio, false);
+    }
+
+    public ColaMultinivel(CriterioOrden criterio, boolean intrusiva) {
+        this.criterio = criterio;
+        this.intrusiva = intrusiva;
+        this.indice = new IndiceId();
+        this.cabezas = new Node[NIVELES];
+        this.colas = new Node[NIVELES];
+        this.mapaNiveles = 0L;
+        this.tamano = 0;
+    }
+
+    @Override
+    public void insertar(ProcessControlBlock pcb) {
+        int nivel = nivelDe(criterio.claveDe(pcb));
+        Node nuevo = Node.paraEnlazar(pcb, intrusiva);
+        nuevo.setPropietario(this);
+        nuevo.setClave(nivel);
+
+        Node ultimo = colas[nivel];
+        nuevo.setAnterior(ultimo);
+        nuevo.setSiguiente(null);
+        if (ultimo == null) {
+            cabezas[nivel] = nuevo;
+            mapaNiveles |= (1L << nivel);
+        } else {
+            ultimo.setSiguiente(nuevo);
+        }
+        colas[nivel] = nuevo;
+
+        indice.agregar(nuevo);
+        tamano++;
+    }
+
+    @Override
+    public ProcessControlBlock eliminarPrimero() {
+        if (mapaNiveles == 0L) return null;
+        Node primero = cabezas[Long.numberOfTrailingZeros(mapaNiveles)];
+        desenlazar(primero);
+        return primero.getPcb();
+    }
+
+    @Override
+    public ProcessControlBlock verPrimero() {
+        if (mapaNiveles == 0L) return null;
+        return cabezas[Long.numberOfTrailingZeros(mapaNiveles)].getPcb();
+    }
+
+    @Override
+    public ProcessControlBlock eliminarPorId(String id) {
+        Node nodo = indice.buscar(id);
+        if (nodo == null) return null;
+        desenlazar(nodo);
+        return nodo.getPcb();
+    }
+
+    @Override
+    public boolean eliminar(ProcessControlBlock pcb) {
+        Node nodo = indice.buscarNodo(pcb);
+        if (nodo == null) return false;
+        desenlazar(nodo);
+        return true;
+    }
+
+    @Override
+    public ProcessControlBlock obtenerPorId(String id) {
+        Node nodo = indice.buscar(id);
+        return (nodo == null) ? null : nodo.getPcb();
+    }
+
+    @Override
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    @Override
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Copia ordenada: niveles de más a menos urgente, FIFO dentro de cada nivel.
+     */
+    @Override
+    public ProcessControlBlock[] aArreglo() {
+        ProcessControlBlock[] copia = new ProcessControlBlock[tamano];
+        int i = 0;
+        long pendientes = mapaNiveles;
+        while (pendientes != 0L) {
+            int nivel = Long.numberOfTrailingZeros(pendientes);
+            pendientes &= pendientes - 1; // Apagar el bit ya visitado
+            for (Node actual = cabezas[nivel]; actual != null; actual = actual.getSiguiente()) {
+                copia[i++] = actual.getPcb();
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * @return Mapa de bits de niveles no vacíos (bit i = nivel i tiene procesos).
+     */
+    public long getMapaNiveles() {
+        return mapaNiveles;
+    }
+
+    public CriterioOrden getCriterio() {
+        return criterio;
+    }
+
+    /**
+     * Convierte una clave en nivel válido del mapa de bits.
+     * @param clave
+     * @return Nivel en [0, NIVELES - 1].
+     */
+    public static int nivelDe(long clave) {
+        return (int) Math.max(0, Math.min(NIVELES - 1, clave));
+    }
+
+    private void desenlazar(Node nodo) {
+        int nivel = (int) nodo.getClave();
+        Node previo = nodo.getAnterior();
+        Node siguiente = nodo.getSiguiente();
+
+        if (previo == null) {
+            cabezas[nivel] = siguiente;
+        } else {
+            previo.setSiguiente(siguiente);
+        }
+        if (siguiente == null) {
+            colas[nivel] = previo;
+        } else {
+            siguiente.setAnterior(previo);
+        }
+        if (cabezas[nivel] == null) {
+            mapaNiveles &= ~(1L << nivel);
+        }
+
+        nodo.setAnterior(null);
+        nodo.setSiguiente(null);
+        indice.quitar(nodo);
+        nodo.setPropietario(null);
+        tamano--;
+    }
+}
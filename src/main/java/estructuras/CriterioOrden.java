@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Criterio con el que una ThreadSafeQueue ordena internamente sus procesos.
+ * En todos los criterios ordenados, menor valor numérico = mayor urgencia.
+ * Cada criterio decide además qué estructura interna lo atiende mejor.
+ */
+public enum CriterioOrden {
+    FIFO,
+    DEADLINE,
+    PRIORIDAD,
+    NIVEL_MLFQ,
+    LAXITUD,
+    RESTANTES;
+
+    /**
+     * Calcula la clave de ordenamiento del PCB según este criterio.
+     * @param pcb Proceso a evaluar.
+     * @return Clave numérica (FIFO siempre retorna 0).
+     */
+    public long claveDe(ProcessControlBlock pcb) {
+        switch (this) {
+            case DEADLINE -> {
+                // Absoluto: no cambia mientras el proceso espera, la clave congelada sigue siendo válida
+                return pcb.getDeadlineEfectivo();
+            }
+            case PRIORIDAD -> {
+                // Los degradados por sobrecarga van al último nivel
+                return pcb.isDegradado() ? ColaMultinivel.NIVELES - 1 : pcb.getPrioridad();
+            }
+            case NIVEL_MLFQ -> {
+                return pcb.isDegradado() ? ColaMultinivel.NIVELES - 1 : pcb.getNivelMLFQ();
+            }
+            case LAXITUD -> {
+                // Holgura más el ciclo actual: en espera no cambia, así que la clave congelada sigue siendo válida
+                return pcb.getDeadlineEfectivo() - pcb.getInstruccionesRestantes();
+            }
+            case RESTANTES -> {
+                // No avanza mientras el proceso espera, así que la clave congelada sigue siendo válida
+                int restantes = pcb.getInstruccionesRestantes();
+                return pcb.isDegradado() ? restantes + ProcessControlBlock.DESPLAZAMIENTO_DEGRADADO : restantes;
+            }
+            default -> {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Crea la estructura interna adecuada al criterio: lista FIFO, montículo
+     * indexado para claves amplias (deadline, laxitud, restantes) o cola multinivel con mapa de bits
+     * para claves pequeñas (prioridades 1..5, niveles MLFQ).
+     * @param intrusiva Si la estructura debe enlazar los nodos propios de los PCB.
+     * @return Estructura vacía.
+     */
+    public EstructuraCola crearEstructura(boolean intrusiva) {
+        switch (this) {
+            case DEADLINE, LAXITUD, RESTANTES -> {
+                return new MonticuloIndexado(this, intrusiva);
+            }
+            case PRIORIDAD, NIVEL_MLFQ -> {
+                return new ColaMultinivel(this, intrusiva);
+            }
+            default -> {
+                return new CustomLinkedList(intrusiva);
+            }
+        }
+    }
+}
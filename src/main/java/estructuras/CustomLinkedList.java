@@ -7,143 +7,137 @@ package estructuras;
 import modelos.ProcessControlBlock;
 
 /**
- * Lista enlazada simple construida desde cero. 
+ * Lista doblemente enlazada construida desde cero.
  * Maneja la inserción estándar y la inserción ordenada (para planificadores estáticos y EDF).
+ * Un IndiceId (hash de ID -> nodo) permite buscar y extraer por ID en tiempo constante.
+ * Con IDs duplicados, las operaciones por ID afectan siempre al nodo insertado primero.
+ *
+ * En modo intrusivo la lista enlaza el nodo propio de cada PCB en vez de crear uno
+ * nuevo, de modo que mover procesos entre colas no reserva memoria.
  */
-public class CustomLinkedList {
-    
+public class CustomLinkedList implements EstructuraCola {
+
+    /**
+     * Verificación de depuración (-Drtos.depuracion=true): rechaza un PCB que ya
+     * está enlazado en otra cola intrusiva, lo que corrompería ambas listas.
+     */
+    public static final boolean VERIFICAR_ENLACES = Boolean.getBoolean("rtos.depuracion");
+
     private Node cabeza;
     private Node cola;
     private int tamano;
+    private final IndiceId indice;
+    private final boolean intrusiva;
 
     public CustomLinkedList() {
+        this(false);
+    }
+
+    /**
+     * @param intrusiva true para enlazar los nodos propios de los PCB (sin reservas por encolado).
+     */
+    public CustomLinkedList(boolean intrusiva) {
         this.cabeza = null;
         this.cola = null;
         this.tamano = 0;
+        this.indice = new IndiceId();
+        this.intrusiva = intrusiva;
+    }
+
+    @Override
+    public void insertar(ProcessControlBlock pcb) {
+        insertarAlFinal(pcb);
+    }
+
+    @Override
+    public ProcessControlBlock eliminarPrimero() {
+        return eliminarAlInicio();
+    }
+
+    @Override
+    public ProcessControlBlock verPrimero() {
+        return estaVacia() ? null : cabeza.getPcb();
     }
 
     public void insertarAlFinal(ProcessControlBlock pcb) {
-        Node nuevo = new Node(pcb);
-        if (estaVacia()) {
-            cabeza = nuevo;
-            cola = nuevo;
-        } else {
-            cola.setSiguiente(nuevo);
-            cola = nuevo;
-        }
-        tamano++;
+        Node nuevo = Node.paraEnlazar(pcb, intrusiva);
+        enlazarDespuesDe(cola, nuevo);
     }
 
     /**
-     * Inserta un PCB manteniendo el orden. 
+     * Inserta un PCB manteniendo el orden.
      * Asume que menor valor numérico = mayor prioridad (ej. deadline más cercano o prioridad más alta).
      * @param pcb
      * @param priorizarPorDeadline
      */
     public void insertarPorPrioridad(ProcessControlBlock pcb, boolean priorizarPorDeadline) {
-        Node nuevo = new Node(pcb);
-        
-        if (estaVacia()) {
-            cabeza = nuevo;
-            cola = nuevo;
-            tamano++;
-            return;
-        }
-
-        // Evaluar si va al inicio (cabeza)
-        boolean vaAlInicio = priorizarPorDeadline 
-            ? (pcb.getTiempoRestanteDeadline() < cabeza.getPcb().getTiempoRestanteDeadline())
-            : (pcb.getPrioridad() < cabeza.getPcb().getPrioridad());
+        Node nuevo = Node.paraEnlazar(pcb, intrusiva);
 
-        if (vaAlInicio) {
-            nuevo.setSiguiente(cabeza);
-            cabeza = nuevo;
-            tamano++;
-            return;
-        }
-
-        // Recorrer para encontrar la posición correcta
+        // Recorrer para encontrar la posición correcta (antes del primero con menor urgencia)
+        Node previo = null;
         Node actual = cabeza;
-        while (actual.getSiguiente() != null) {
-            ProcessControlBlock sigPcb = actual.getSiguiente().getPcb();
+        while (actual != null) {
             boolean insertarAqui = priorizarPorDeadline
-                ? (pcb.getTiempoRestanteDeadline() < sigPcb.getTiempoRestanteDeadline())
-                : (pcb.getPrioridad() < sigPcb.getPrioridad());
+                ? (pcb.getDeadlineAbsoluto() < actual.getPcb().getDeadlineAbsoluto())
+                : (pcb.getPrioridad() < actual.getPcb().getPrioridad());
 
             if (insertarAqui) {
                 break;
             }
+            previo = actual;
             actual = actual.getSiguiente();
         }
 
-        nuevo.setSiguiente(actual.getSiguiente());
-        actual.setSiguiente(nuevo);
-        
-        // Si se insertó al final, actualizar la cola
-        if (nuevo.getSiguiente() == null) {
-            cola = nuevo;
-        }
-        tamano++;
+        enlazarDespuesDe(previo, nuevo);
     }
 
     public ProcessControlBlock eliminarAlInicio() {
         if (estaVacia()) return null;
-        
-        ProcessControlBlock pcb = cabeza.getPcb();
-        cabeza = cabeza.getSiguiente();
-        tamano--;
-        
-        if (estaVacia()) {
-            cola = null;
-        }
-        return pcb;
+
+        Node extraido = cabeza;
+        desenlazar(extraido);
+        return extraido.getPcb();
     }
 
+    @Override
     public ProcessControlBlock eliminarPorId(String id) {
-        if (estaVacia()) return null;
+        Node nodo = indice.buscar(id);
+        if (nodo == null) return null; // No se encontró
 
-        // Si es la cabeza
-        if (cabeza.getPcb().getId().equals(id)) {
-            return eliminarAlInicio();
-        }
+        desenlazar(nodo);
+        return nodo.getPcb();
+    }
 
-        Node actual = cabeza;
-        while (actual.getSiguiente() != null) {
-            if (actual.getSiguiente().getPcb().getId().equals(id)) {
-                ProcessControlBlock pcbExtraido = actual.getSiguiente().getPcb();
-                actual.setSiguiente(actual.getSiguiente().getSiguiente());
-                
-                // Si eliminamos el último, actualizamos la cola
-                if (actual.getSiguiente() == null) {
-                    cola = actual;
-                }
-                tamano--;
-                return pcbExtraido;
-            }
-            actual = actual.getSiguiente();
-        }
-        return null; // No se encontró
+    @Override
+    public boolean eliminar(ProcessControlBlock pcb) {
+        Node nodo = indice.buscarNodo(pcb);
+        if (nodo == null) return false;
+
+        desenlazar(nodo);
+        return true;
     }
 
+    @Override
     public ProcessControlBlock obtenerPorId(String id) {
-        Node actual = cabeza;
-        while (actual != null) {
-            if (actual.getPcb().getId().equals(id)) {
-                return actual.getPcb();
-            }
-            actual = actual.getSiguiente();
-        }
-        return null;
+        Node nodo = indice.buscar(id);
+        return (nodo == null) ? null : nodo.getPcb();
     }
 
+    @Override
     public boolean estaVacia() {
         return cabeza == null;
     }
 
+    @Override
     public int getTamano() {
         return tamano;
     }
 
+    public boolean isIntrusiva() {
+        return intrusiva;
+    }
+
+    @Override
     public ProcessControlBlock[] aArreglo() {
         ProcessControlBlock[] arreglo = new ProcessControlBlock[tamano];
         Node actual = cabeza;
@@ -154,4 +148,57 @@ public class CustomLinkedList {
         }
         return arreglo;
     }
+
+    /**
+     * Enlaza el nodo inmediatamente después de 'previo' (o como cabeza si es null)
+     * y lo registra en el índice.
+     */
+    private void enlazarDespuesDe(Node previo, Node nuevo) {
+        Node siguiente = (previo == null) ? cabeza : previo.getSiguiente();
+
+        nuevo.setAnterior(previo);
+        nuevo.setSiguiente(siguiente);
+
+        if (previo == null) {
+            cabeza = nuevo;
+        } else {
+            previo.setSiguiente(nuevo);
+        }
+
+        if (siguiente == null) {
+            cola = nuevo;
+        } else {
+            siguiente.setAnterior(nuevo);
+        }
+
+        nuevo.setPropietario(this);
+        indice.agregar(nuevo);
+        tamano++;
+    }
+
+    /**
+     * Retira el nodo de la lista y del índice en O(1) gracias al doble enlace.
+     */
+    private void desenlazar(Node nodo) {
+        Node previo = nodo.getAnterior();
+        Node siguiente = nodo.getSiguiente();
+
+        if (previo == null) {
+            cabeza = siguiente;
+        } else {
+            previo.setSiguiente(siguiente);
+        }
+
+        if (siguiente == null) {
+            cola = previo;
+        } else {
+            siguiente.setAnterior(previo);
+        }
+
+        nodo.setAnterior(null);
+        nodo.setSiguiente(null);
+        indice.quitar(nodo);
+        nodo.setPropietario(null);
+        tamano--;
+    }
 }
@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Contrato común de las estructuras (no concurrentes) que pueden respaldar
+ * a una ThreadSafeQueue. La exclusión mutua la aporta siempre la cola envolvente.
+ */
+public interface EstructuraCola {
+
+    void insertar(ProcessControlBlock pcb);
+
+    ProcessControlBlock eliminarPrimero();
+
+    ProcessControlBlock verPrimero();
+
+    ProcessControlBlock eliminarPorId(String id);
+
+    ProcessControlBlock obtenerPorId(String id);
+
+    /**
+     * Extrae exactamente ese PCB (por identidad, no por ID).
+     * @param pcb
+     * @return true si estaba en la estructura.
+     */
+    boolean eliminar(ProcessControlBlock pcb);
+
+    boolean estaVacia();
+
+    int getTamano();
+
+    ProcessControlBlock[] aArreglo();
+}
\ No newline at end of file
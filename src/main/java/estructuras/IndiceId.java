@@ -0,0 +1,149 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Tabla hash construida desde cero que indexa nodos por el ID de su PCB.
+ * Es intrusiva: encadena los nodos de cada cubeta usando el propio campo
+ * siguienteEnIndice del Node, por lo que indexar no reserva memoria adicional.
+ *
+ * IDs duplicados: los nodos con el mismo ID quedan en la misma cubeta en orden
+ * de inserción, y buscar() siempre retorna el más antiguo (determinista).
+ */
+public class IndiceId {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private Node[] cubetas;
+    private int tamano;
+
+    public IndiceId() {
+        this.cubetas = new Node[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+    }
+
+    /**
+     * Registra el nodo al final de su cubeta (preserva el orden de inserción).
+     * @param nodo Nodo cuyo PCB ya tiene ID asignado.
+     */
+    public void agregar(Node nodo) {
+        if (tamano + 1 > (cubetas.length * 3) / 4) {
+            redimensionar();
+        }
+        enlazarAlFinal(cubetas, nodo);
+        tamano++;
+    }
+
+    /**
+     * Retorna el nodo más antiguo registrado con ese ID, o null si no existe.
+     * @param id
+     * @return
+     */
+    public Node buscar(String id) {
+        Node actual = cubetas[indiceDe(id, cubetas.length)];
+        while (actual != null) {
+            if (actual.getPcb().getId().equals(id)) {
+                return actual;
+            }
+            actual = actual.getSiguienteEnIndice();
+        }
+        return null;
+    }
+
+    /**
+     * Busca el nodo que enlaza exactamente a ese PCB (útil con IDs duplicados).
+     * @param pcb
+     * @return El nodo, o null si el PCB no está indexado.
+     */
+    public Node buscarNodo(ProcessControlBlock pcb) {
+        Node actual = cubetas[indiceDe(pcb.getId(), cubetas.length)];
+        while (actual != null) {
+            if (actual.getPcb() == pcb) {
+                return actual;
+            }
+            actual = actual.getSiguienteEnIndice();
+        }
+        return null;
+    }
+
+    /**
+     * Quita un nodo concreto del índice (identidad, no ID).
+     * @param nodo
+     * @return true si el nodo estaba indexado.
+     */
+    public boolean quitar(Node nodo) {
+        int i = indiceDe(nodo.getPcb().getId(), cubetas.length);
+        Node actual = cubetas[i];
+        Node previo = null;
+        while (actual != null) {
+            if (actual == nodo) {
+                if (previo == null) {
+                    cubetas[i] = actual.getSiguienteEnIndice();
+                } else {
+                    previo.setSiguienteEnIndice(actual.getSiguienteEnIndice());
+                }
+                nodo.setSiguienteEnIndice(null);
+                tamano--;
+                return true;
+            }
+            previo = actual;
+            actual = actual.getSiguienteEnIndice();
+        }
+        return false;
+    }
+
+    public void limpiar() {
+        for (int i = 0; i < cubetas.length; i++) {
+            Node actual = cubetas[i];
+            while (actual != null) {
+                Node sig = actual.getSiguienteEnIndice();
+                actual.setSiguienteEnIndice(null);
+                actual = sig;
+            }
+            cubetas[i] = null;
+        }
+        tamano = 0;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    private void redimensionar() {
+        Node[] nuevas = new Node[cubetas.length * 2];
+        // Se recorre cada cubeta en orden para conservar el orden relativo de los duplicados
+        for (Node cubeta : cubetas) {
+            Node actual = cubeta;
+            while (actual != null) {
+                Node sig = actual.getSiguienteEnIndice();
+                actual.setSiguienteEnIndice(null);
+                enlazarAlFinal(nuevas, actual);
+                actual = sig;
+            }
+        }
+        cubetas = nuevas;
+    }
+
+    private static void enlazarAlFinal(Node[] tabla, Node nodo) {
+        int i = indiceDe(nodo.getPcb().getId(), tabla.length);
+        if (tabla[i] == null) {
+            tabla[i] = nodo;
+            return;
+        }
+        Node actual = tabla[i];
+        while (actual.getSiguienteEnIndice() != null) {
+            actual = actual.getSiguienteEnIndice();
+        }
+        actual.setSiguienteEnIndice(nodo);
+    }
+
+    private static int indiceDe(String id, int capacidad) {
+        int h = id.hashCode();
+        h ^= (h >>> 16); // Dispersar los bits altos (los IDs "P####" difieren poco)
+        return h & (capacidad - 1);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Montículo binario mínimo (min-heap) indexado por ID de proceso.
+ * Ordena por la clave del CriterioOrden (deadline o prioridad) y desempata por
+ * orden de llegada, de modo que procesos con igual clave se atienden en FIFO.
+ *
+ * Costos: verPrimero O(1), insertar/eliminarPrimero O(log n), eliminarPorId O(log n).
+ * No es thread-safe: la exclusión mutua la aporta ThreadSafeQueue.
+ * Al igual que CustomLinkedList, admite modo intrusivo (reutiliza el nodo del PCB).
+ */
+public class MonticuloIndexado implements EstructuraCola {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final CriterioOrden criterio;
+    private final IndiceId indice;
+    private Node[] arreglo;
+    private int tamano;
+    private long contadorSecuencia;
+    private final boolean intrusivo;
+
+    public MonticuloIndexado(CriterioOrden criterio) {
+        this(criterio, false);
+    }
+
+    public MonticuloIndexado(CriterioOrden criterio, boolean intrusivo) {
+        this.criterio = criterio;
+        this.intrusivo = intrusivo;
+        this.indice = new IndiceId();
+        this.arreglo = new Node[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+        this.contadorSecuencia = 0;
+    }
+
+    @Override
+    public void insertar(ProcessControlBlock pcb) {
+        if (tamano == arreglo.length) {
+            Node[] mayor = new Node[arreglo.length * 2];
+            System.arraycopy(arreglo, 0, mayor, 0, tamano);
+            arreglo = mayor;
+        }
+        Node nuevo = Node.paraEnlazar(pcb, intrusivo);
+        nuevo.setPropietario(this);
+        // La clave se congela al insertar: el orden no depende de mutaciones posteriores del PCB
+        nuevo.setClave(criterio.claveDe(pcb));
+        nuevo.setSecuencia(contadorSecuencia++);
+
+        colocar(nuevo, tamano);
+        tamano++;
+        indice.agregar(nuevo);
+        subir(nuevo.getPosicionMonticulo());
+    }
+
+    @Override
+    public ProcessControlBlock eliminarPrimero() {
+        if (estaVacia()) return null;
+        return eliminarEn(0);
+    }
+
+    @Override
+    public ProcessControlBlock verPrimero() {
+        return estaVacia() ? null : arreglo[0].getPcb();
+    }
+
+    @Override
+    public ProcessControlBlock eliminarPorId(String id) {
+        Node nodo = indice.buscar(id);
+        if (nodo == null) return null;
+        return eliminarEn(nodo.getPosicionMonticulo());
+    }
+
+    @Override
+    public boolean eliminar(ProcessControlBlock pcb) {
+        Node nodo = indice.buscarNodo(pcb);
+        if (nodo == null) return false;
+        eliminarEn(nodo.getPosicionMonticulo());
+        return true;
+    }
+
+    @Override
+    public ProcessControlBlock obtenerPorId(String id) {
+        Node nodo = indice.buscar(id);
+        return (nodo == null) ? null : nodo.getPcb();
+    }
+
+    @Override
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    @Override
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Copia en el orden interno del montículo (el primero siempre es el más urgente,
+     * el resto no está ordenado).
+     */
+    @Override
+    public ProcessControlBlock[] aArreglo() {
+        ProcessControlBlock[] copia = new ProcessControlBlock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            copia[i] = arreglo[i].getPcb();
+        }
+        return copia;
+    }
+
+    public CriterioOrden getCriterio() {
+        return criterio;
+    }
+
+    private ProcessControlBlock eliminarEn(int posicion) {
+        Node eliminado = arreglo[posicion];
+        tamano--;
+        if (posicion != tamano) {
+            colocar(arreglo[tamano], posicion);
+            arreglo[tamano] = null;
+            // El nodo movido puede violar el orden hacia arriba o hacia abajo
+            if (!subir(posicion)) {
+                bajar(posicion);
+            }
+        } else {
+            arreglo[tamano] = null;
+        }
+        indice.quitar(eliminado);
+        eliminado.setPosicionMonticulo(-1);
+        eliminado.setPropietario(null);
+        return eliminado.getPcb();
+    }
+
+    private boolean subir(int posicion) {
+        boolean movido = false;
+        Node nodo = arreglo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            if (!esMenor(nodo, arreglo[padre])) {
+                break;
+            }
+            colocar(arreglo[padre], posicion);
+            posicion = padre;
+            movido = true;
+        }
+        colocar(nodo, posicion);
+        return movido;
+    }
+
+    private void bajar(int posicion) {
+        Node nodo = arreglo[posicion];
+        int mitad = tamano >>> 1;
+        while (posicion < mitad) {
+            int hijo = 2 * posicion + 1;
+            int derecho = hijo + 1;
+            if (derecho < tamano && esMenor(arreglo[derecho], arreglo[hijo])) {
+                hijo = derecho;
+            }
+            if (!esMenor(arreglo[hijo], nodo)) {
+                break;
+            }
+            colocar(arreglo[hijo], posicion);
+            posicion = hijo;
+        }
+        colocar(nodo, posicion);
+    }
+
+    private void colocar(Node nodo, int posicion) {
+        arreglo[posicion] = nodo;
+        nodo.setPosicionMonticulo(posicion);
+    }
+
+    private static boolean esMenor(Node a, Node b) {
+        if (a.getClave() != b.getClave()) {
+            return a.getClave() < b.getClave();
+        }
+        return a.getSecuencia() < b.getSecuencia();
+    }
+}
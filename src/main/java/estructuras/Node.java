@@ -8,16 +8,33 @@ import modelos.ProcessControlBlock;
 
 /**
  * Representa un nodo simétrico para la lista enlazada personalizada.
- * Almacena el PCB y la referencia al siguiente nodo en la memoria.
+ * Almacena el PCB y las referencias al nodo siguiente y anterior en la memoria.
+ * También sirve como entrada del montículo indexado y del índice por ID.
  */
 public class Node {
     
     private ProcessControlBlock pcb;
     private Node siguiente;
+    private Node anterior;
+
+    // Campos usados por MonticuloIndexado
+    private int posicionMonticulo;
+    private long clave;
+    private long secuencia;
+
+    // Encadenamiento dentro de la cubeta del IndiceId
+    private Node siguienteEnIndice;
+
+    // Estructura que tiene enlazado a este nodo (null si está libre)
+    private EstructuraCola propietario;
 
     public Node(ProcessControlBlock pcb) {
         this.pcb = pcb;
         this.siguiente = null;
+        this.anterior = null;
+        this.posicionMonticulo = -1;
+        this.siguienteEnIndice = null;
+        this.propietario = null;
     }
 
     public ProcessControlBlock getPcb() {
@@ -35,4 +52,72 @@ public class Node {
     public void setSiguiente(Node siguiente) {
         this.siguiente = siguiente;
     }
+
+    public Node getAnterior() {
+        return anterior;
+    }
+
+    public void setAnterior(Node anterior) {
+        this.anterior = anterior;
+    }
+
+    public int getPosicionMonticulo() {
+        return posicionMonticulo;
+    }
+
+    public void setPosicionMonticulo(int posicionMonticulo) {
+        this.posicionMonticulo = posicionMonticulo;
+    }
+
+    public long getClave() {
+        return clave;
+    }
+
+    public void setClave(long clave) {
+        this.clave = clave;
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public void setSecuencia(long secuencia) {
+        this.secuencia = secuencia;
+    }
+
+    public Node getSiguienteEnIndice() {
+        return siguienteEnIndice;
+    }
+
+    public void setSiguienteEnIndice(Node siguienteEnIndice) {
+        this.siguienteEnIndice = siguienteEnIndice;
+    }
+
+    public EstructuraCola getPropietario() {
+        return propietario;
+    }
+
+    public void setPropietario(EstructuraCola propietario) {
+        this.propietario = propietario;
+    }
+
+    /**
+     * Obtiene el nodo con el que enlazar un PCB en una estructura.
+     * En modo intrusivo se reutiliza el nodo propio del PCB (sin reservar memoria);
+     * si no, se crea uno nuevo como siempre.
+     * @param pcb Proceso a enlazar.
+     * @param intrusivo Si la estructura destino trabaja en modo intrusivo.
+     * @return Nodo listo para enlazar.
+     */
+    static Node paraEnlazar(ProcessControlBlock pcb, boolean intrusivo) {
+        if (!intrusivo) {
+            return new Node(pcb);
+        }
+        Node propio = pcb.getNodoCola();
+        if (CustomLinkedList.VERIFICAR_ENLACES && propio.getPropietario() != null) {
+            throw new IllegalStateException("El PCB " + pcb.getId() + " ya está enlazado en otra cola ("
+                    + propio.getPropietario().getClass().getSimpleName() + ").");
+        }
+        return propio;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Observador de una ThreadSafeQueue.
+ * Se invoca después de liberar el semáforo de la cola, en el hilo que encoló,
+ * así que puede consultar la cola sin riesgo de interbloqueo.
+ */
+public interface OyenteCola {
+
+    /**
+     * @param cola Cola que acaba de recibir el proceso.
+     * @param pcb Proceso encolado.
+     */
+    void alEncolar(ThreadSafeQueue cola, ProcessControlBlock pcb);
+}
\ No newline at end of file
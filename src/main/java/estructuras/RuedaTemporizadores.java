@@ -0,0 +1,257 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Rueda jerárquica de temporizadores (hierarchical timing wheel).
+ * Cuatro niveles de 64 ranuras: el nivel 0 resuelve ciclos exactos y cada nivel
+ * superior agrupa bloques 64 veces más grandes. Al cruzar el borde de un bloque,
+ * la ranura correspondiente del nivel superior "cae en cascada" al inferior.
+ *
+ * Programar y cancelar cuestan O(1); avanzar un ciclo cuesta O(1) amortizado más
+ * los temporizadores que expiran, sin importar cuántos haya pendientes.
+ * Los oyentes se invocan fuera del semáforo, por lo que pueden reprogramar.
+ * Un único hilo (el del reloj) debe llamar a avanzarHasta().
+ */
+public class RuedaTemporizadores {
+
+    /**
+     * Recibe los temporizadores que alcanzan su ciclo de expiración.
+     */
+    public interface OyenteExpiracion {
+        void alExpirar(Temporizador temporizador, int cicloActual);
+    }
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int RANURAS = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+
+    private final Temporizador[][] ranuras;
+    private final OyenteExpiracion oyente;
+    private final Semaphore mutex;
+
+    private int cicloActual;
+    private int tamano;
+    private Temporizador[] expirados;
+
+    /**
+     * @param cicloInicial Ciclo desde el que empieza a contar la rueda.
+     * @param oyente Destino de las expiraciones.
+     */
+    public RuedaTemporizadores(int cicloInicial, OyenteExpiracion oyente) {
+        this.ranuras = new Temporizador[NIVELES][RANURAS];
+        this.oyente = oyente;
+        this.mutex = new Semaphore(1);
+        this.cicloActual = cicloInicial;
+        this.tamano = 0;
+        this.expirados = new Temporizador[16];
+    }
+
+    /**
+     * Programa (o reprograma) un temporizador para un ciclo absoluto.
+     * Si el ciclo ya pasó, expira en el próximo avance.
+     * @param temporizador
+     * @param cicloExpiracion
+     */
+    public void programar(Temporizador temporizador, int cicloExpiracion) {
+        try {
+            mutex.acquire();
+            if (temporizador.estaProgramado()) {
+                desenlazar(temporizador);
+            }
+            temporizador.setCicloExpiracion(cicloExpiracion);
+            ubicar(temporizador, cicloActual + 1);
+            tamano++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al programar temporizador: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+    }
+
+    /**
+     * Cancela el temporizador si estaba programado.
+     * @param temporizador
+     * @return true si se canceló antes de expirar.
+     */
+    public boolean cancelar(Temporizador temporizador) {
+        boolean cancelado = false;
+        try {
+            mutex.acquire();
+            if (temporizador.estaProgramado()) {
+                desenlazar(temporizador);
+                tamano--;
+                cancelado = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al cancelar temporizador: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+        return cancelado;
+    }
+
+    /**
+     * Avanza la rueda hasta el ciclo indicado, disparando los temporizadores vencidos.
+     * @param ciclo Ciclo global alcanzado por el reloj.
+     */
+    public void avanzarHasta(int ciclo) {
+        int cantidad = 0;
+        int alcanzado = ciclo;
+        try {
+            mutex.acquire();
+            while (cicloActual < ciclo) {
+                if (tamano == 0) {
+                    cicloActual = ciclo; // Nada pendiente: saltar directo
+                    break;
+                }
+                cicloActual++;
+                cascada();
+                cantidad = recolectar(ranuras[0], cicloActual & MASCARA, cantidad);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al avanzar la rueda de temporizadores: " + e.getMessage());
+            alcanzado = cicloActual;
+        } finally {
+            mutex.release();
+        }
+
+        // Los oyentes corren fuera del semáforo
+        for (int i = 0; i < cantidad; i++) {
+            Temporizador t = expirados[i];
+            expirados[i] = null;
+            oyente.alExpirar(t, alcanzado);
+        }
+    }
+
+    /**
+     * Ciclo más cercano en el que podría expirar algo, mirando solo el nivel 0.
+     * Si el nivel 0 está vacío se retorna el inicio del próximo bloque (cota inferior).
+     * @return Ciclo absoluto, o Integer.MAX_VALUE si la rueda está vacía.
+     */
+    public int proximaExpiracionEstimada() {
+        int proximo = Integer.MAX_VALUE;
+        try {
+            mutex.acquire();
+            if (tamano > 0) {
+                proximo = ((cicloActual >> BITS_POR_NIVEL) + 1) << BITS_POR_NIVEL;
+                for (int d = 1; d < RANURAS; d++) {
+                    int ciclo = cicloActual + d;
+                    if (ranuras[0][ciclo & MASCARA] != null) {
+                        proximo = ciclo;
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            mutex.release();
+        }
+        return proximo;
+    }
+
+    public int getCicloActual() {
+        return cicloActual;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Al cruzar el borde de un bloque, redistribuye la ranura del nivel superior
+     * correspondiente. Debe llamarse con el mutex tomado.
+     */
+    private void cascada() {
+        // Nivel más alto cuyo borde se cruzó en este ciclo
+        int nivelMaximo = 0;
+        while (nivelMaximo + 1 < NIVELES
+                && (cicloActual & ((1 << (BITS_POR_NIVEL * (nivelMaximo + 1))) - 1)) == 0) {
+            nivelMaximo++;
+        }
+        // De arriba hacia abajo: lo que baja de un nivel alto se vuelve a repartir en los inferiores
+        for (int nivel = nivelMaximo; nivel >= 1; nivel--) {
+            int ranura = (cicloActual >>> (BITS_POR_NIVEL * nivel)) & MASCARA;
+            Temporizador actual = ranuras[nivel][ranura];
+            ranuras[nivel][ranura] = null;
+            while (actual != null) {
+                Temporizador sig = actual.getSiguiente();
+                actual.ubicar(-1, -1);
+                actual.setAnterior(null);
+                actual.setSiguiente(null);
+                // Puede caer justo en la ranura del ciclo actual, que se recolecta a continuación
+                ubicar(actual, cicloActual);
+                actual = sig;
+            }
+        }
+    }
+
+    /**
+     * Mueve al búfer de expirados todo lo que está en la ranura indicada del nivel 0.
+     */
+    private int recolectar(Temporizador[] nivel0, int ranura, int cantidad) {
+        Temporizador actual = nivel0[ranura];
+        nivel0[ranura] = null;
+        while (actual != null) {
+            Temporizador sig = actual.getSiguiente();
+            actual.ubicar(-1, -1);
+            actual.setAnterior(null);
+            actual.setSiguiente(null);
+            tamano--;
+            if (cantidad == expirados.length) {
+                Temporizador[] mayor = new Temporizador[expirados.length * 2];
+                System.arraycopy(expirados, 0, mayor, 0, cantidad);
+                expirados = mayor;
+            }
+            expirados[cantidad++] = actual;
+            actual = sig;
+        }
+        return cantidad;
+    }
+
+    private void ubicar(Temporizador t, int cicloMinimo) {
+        // Lo ya vencido se atiende en el primer ciclo todavía no procesado
+        int destino = Math.max(t.getCicloExpiracion(), cicloMinimo);
+        long delta = (long) destino - cicloActual;
+
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && delta >= (1L << (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        int ranura = (destino >>> (BITS_POR_NIVEL * nivel)) & MASCARA;
+
+        Temporizador cabeza = ranuras[nivel][ranura];
+        t.setAnterior(null);
+        t.setSiguiente(cabeza);
+        if (cabeza != null) {
+            cabeza.setAnterior(t);
+        }
+        ranuras[nivel][ranura] = t;
+        t.ubicar(nivel, ranura);
+    }
+
+    private void desenlazar(Temporizador t) {
+        Temporizador previo = t.getAnterior();
+        Temporizador sig = t.getSiguiente();
+        if (previo == null) {
+            ranuras[t.getNivel()][t.getRanura()] = sig;
+        } else {
+            previo.setSiguiente(sig);
+        }
+        if (sig != null) {
+            sig.setAnterior(previo);
+        }
+        t.setAnterior(null);
+        t.setSiguiente(null);
+        t.ubicar(-1, -1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package estructuras;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Entrada intrusiva de la RuedaTemporizadores.
+ * Cada PCB trae sus propios temporizadores, así que programarlos y cancelarlos
+ * no reserva memoria. Un temporizador solo puede estar en una rueda a la vez.
+ */
+public class Temporizador {
+
+    private final ProcessControlBlock pcb;
+    private int cicloExpiracion;
+
+    // Ubicación dentro de la rueda (nivel -1 = no programado)
+    private Temporizador anterior;
+    private Temporizador siguiente;
+    private int nivel;
+    private int ranura;
+
+    public Temporizador(ProcessControlBlock pcb) {
+        this.pcb = pcb;
+        this.nivel = -1;
+        this.ranura = -1;
+    }
+
+    public ProcessControlBlock getPcb() {
+        return pcb;
+    }
+
+    public int getCicloExpiracion() {
+        return cicloExpiracion;
+    }
+
+    void setCicloExpiracion(int cicloExpiracion) {
+        this.cicloExpiracion = cicloExpiracion;
+    }
+
+    public boolean estaProgramado() {
+        return nivel >= 0;
+    }
+
+    Temporizador getAnterior() {
+        return anterior;
+    }
+
+    void setAnterior(Temporizador anterior) {
+        this.anterior = anterior;
+    }
+
+    Temporizador getSiguiente() {
+        return siguiente;
+    }
+
+    void setSiguiente(Temporizador siguiente) {
+        this.siguiente = siguiente;
+    }
+
+    int getNivel() {
+        return nivel;
+    }
+
+    int getRanura() {
+        return ranura;
+    }
+
+    void ubicar(int nivel, int ranura) {
+        this.nivel = nivel;
+        this.ranura = ranura;
+    }
+}
\ No newline at end of file
@@ -10,46 +10,165 @@ import java.util.concurrent.Semaphore;
 /**
  * Cola concurrente Thread-Safe. Garantiza la exclusión mutua en las operaciones
  * sobre la estructura de datos subyacente mediante el uso de Semáforos.
+ * La estructura interna depende del CriterioOrden: lista enlazada (FIFO),
+ * montículo indexado (DEADLINE) o cola multinivel con mapa de bits (PRIORIDAD).
+ *
+ * Los observadores (GUI, métricas) leen snapshots versionados: cada mutación
+ * incrementa la versión y, mientras no cambie, obtenerSnapshot() retorna el
+ * arreglo ya publicado sin tocar el semáforo.
+ *
+ * Los OyenteCola registrados se notifican tras cada encolado, fuera del semáforo.
  */
-public class ThreadSafeQueue {
+public class ThreadSafeQueue implements ColaConcurrente {
+
+    private static final ProcessControlBlock[] SIN_PROCESOS = new ProcessControlBlock[0];
+
+    /**
+     * Copia inmutable de la cola asociada a la versión con la que se construyó.
+     */
+    private static final class SnapshotVersionado {
+        private final long version;
+        private final ProcessControlBlock[] procesos;
+
+        SnapshotVersionado(long version, ProcessControlBlock[] procesos) {
+            this.version = version;
+            this.procesos = procesos;
+        }
+    }
     
-    private final CustomLinkedList listaInterna;
+    private EstructuraCola estructuraInterna;
+    private CriterioOrden criterio;
+    private final boolean intrusiva;
     private final Semaphore mutex;
 
+    // Solo se escriben con el mutex tomado; se leen sin él
+    private volatile long version;
+    private volatile int tamanoPublicado;
+    private volatile long mapaNivelesPublicado;
+    private volatile SnapshotVersionado ultimoSnapshot;
+
+    // Copia al escribir: se registran pocas veces y se recorren en cada encolado
+    private volatile OyenteCola[] oyentes;
+
     public ThreadSafeQueue() {
-        this.listaInterna = new CustomLinkedList();
+        this(false);
+    }
+
+    /**
+     * @param intrusiva true para que la estructura interna enlace los nodos propios
+     * de cada PCB (cero reservas de memoria al mover procesos entre colas intrusivas).
+     */
+    public ThreadSafeQueue(boolean intrusiva) {
+        this.intrusiva = intrusiva;
+        this.estructuraInterna = new CustomLinkedList(intrusiva);
+        this.criterio = CriterioOrden.FIFO;
         this.mutex = new Semaphore(1); // Semáforo binario para exclusión mutua estricta
+        this.version = 0;
+        this.tamanoPublicado = 0;
+        this.mapaNivelesPublicado = 0L;
+        this.ultimoSnapshot = new SnapshotVersionado(0, SIN_PROCESOS);
+        this.oyentes = new OyenteCola[0];
+    }
+
+    /**
+     * Registra un observador que será notificado después de cada encolado.
+     * @param oyente
+     */
+    public void agregarOyente(OyenteCola oyente) {
+        try {
+            mutex.acquire();
+            OyenteCola[] nuevos = new OyenteCola[oyentes.length + 1];
+            System.arraycopy(oyentes, 0, nuevos, 0, oyentes.length);
+            nuevos[oyentes.length] = oyente;
+            this.oyentes = nuevos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Hilo interrumpido al registrar un oyente de la cola: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+    }
+
+    /**
+     * Cambia la estructura interna de la cola, migrando los procesos actuales.
+     * Al volver a FIFO los procesos quedan en el orden en que salían de la estructura ordenada.
+     * @param nuevoCriterio Criterio de orden deseado.
+     */
+    public void setCriterioOrden(CriterioOrden nuevoCriterio) {
+        try {
+            mutex.acquire();
+            if (nuevoCriterio == criterio) {
+                return;
+            }
+            EstructuraCola nueva = nuevoCriterio.crearEstructura(intrusiva);
+            while (!estructuraInterna.estaVacia()) {
+                nueva.insertar(estructuraInterna.eliminarPrimero());
+            }
+            estructuraInterna = nueva;
+            criterio = nuevoCriterio;
+            publicarCambio();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Hilo interrumpido al cambiar el criterio de orden: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+    }
+
+    public CriterioOrden getCriterioOrden() {
+        return criterio;
     }
 
+    @Override
     public void encolar(ProcessControlBlock pcb) {
+        boolean encolado = false;
         try {
             mutex.acquire();
-            listaInterna.insertarAlFinal(pcb);
+            estructuraInterna.insertar(pcb);
+            publicarCambio();
+            encolado = true;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Restaurar el estado de interrupción
             System.err.println("Hilo interrumpido al intentar encolar: " + e.getMessage());
         } finally {
             mutex.release();
         }
+        if (encolado) {
+            notificarEncolado(pcb);
+        }
     }
 
     public void encolarOrdenado(ProcessControlBlock pcb, boolean priorizarPorDeadline) {
+        boolean encolado = false;
         try {
             mutex.acquire();
-            listaInterna.insertarPorPrioridad(pcb, priorizarPorDeadline);
+            if (estructuraInterna instanceof CustomLinkedList lista) {
+                lista.insertarPorPrioridad(pcb, priorizarPorDeadline);
+            } else {
+                estructuraInterna.insertar(pcb); // La estructura ordenada ya aplica su criterio
+            }
+            publicarCambio();
+            encolado = true;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Hilo interrumpido al intentar encolar ordenado: " + e.getMessage());
         } finally {
             mutex.release();
         }
+        if (encolado) {
+            notificarEncolado(pcb);
+        }
     }
 
+    @Override
     public ProcessControlBlock desencolar() {
         ProcessControlBlock extraido = null;
         try {
             mutex.acquire();
-            extraido = listaInterna.eliminarAlInicio();
+            extraido = estructuraInterna.eliminarPrimero();
+            if (extraido != null) {
+                publicarCambio();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Hilo interrumpido al intentar desencolar: " + e.getMessage());
@@ -59,11 +178,32 @@ public class ThreadSafeQueue {
         return extraido;
     }
 
+    /**
+     * Consulta el primer proceso (el más urgente en modo ordenado) sin extraerlo.
+     * @return PCB al frente de la cola, o null si está vacía.
+     */
+    public ProcessControlBlock verPrimero() {
+        ProcessControlBlock primero = null;
+        try {
+            mutex.acquire();
+            primero = estructuraInterna.verPrimero();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Hilo interrumpido al consultar el frente de la cola: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+        return primero;
+    }
+
     public ProcessControlBlock extraerPorId(String id) {
         ProcessControlBlock extraido = null;
         try {
             mutex.acquire();
-            extraido = listaInterna.eliminarPorId(id);
+            extraido = estructuraInterna.eliminarPorId(id);
+            if (extraido != null) {
+                publicarCambio();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Hilo interrumpido al intentar extraer por ID: " + e.getMessage());
@@ -73,36 +213,158 @@ public class ThreadSafeQueue {
         return extraido;
     }
 
+    /**
+     * Extrae exactamente ese PCB (por identidad, no por ID: tolera IDs duplicados).
+     * @param pcb
+     * @return true si el proceso estaba en la cola.
+     */
+    public boolean extraer(ProcessControlBlock pcb) {
+        boolean extraido = false;
+        try {
+            mutex.acquire();
+            extraido = estructuraInterna.eliminar(pcb);
+            if (extraido) {
+                publicarCambio();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Hilo interrumpido al intentar extraer un proceso: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+        return extraido;
+    }
+
+    /**
+     * Busca un proceso por ID sin extraerlo (O(1) gracias al índice hash).
+     * @param id Identificador del PCB.
+     * @return El PCB encontrado o null.
+     */
+    public ProcessControlBlock obtenerPorId(String id) {
+        ProcessControlBlock encontrado = null;
+        try {
+            mutex.acquire();
+            encontrado = estructuraInterna.obtenerPorId(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Hilo interrumpido al intentar obtener por ID: " + e.getMessage());
+        } finally {
+            mutex.release();
+        }
+        return encontrado;
+    }
+
     /**
      * Retorna un arreglo estándar de Java con la copia de los elementos actuales.
      * Vital para iterar en la GUI sin lanzar ConcurrentModificationException.
+     * En modo ordenado el arreglo sigue el orden interno de la estructura.
+     *
+     * Si la versión no cambió desde el último snapshot se reutiliza el mismo arreglo
+     * sin bloquear. Si hay que reconstruirlo y la cola está ocupada, se retorna el
+     * snapshot anterior en lugar de esperar: un observador nunca detiene al
+     * Planificador ni al Reloj. El arreglo es compartido y NO debe modificarse.
      * @return 
      */
+    @Override
     public ProcessControlBlock[] obtenerSnapshot() {
-        ProcessControlBlock[] snapshot = new ProcessControlBlock[0];
+        SnapshotVersionado cache = ultimoSnapshot;
+        if (cache.version == version) {
+            return cache.procesos;
+        }
+
+        if (!mutex.tryAcquire()) {
+            return cache.procesos; // Vista ligeramente atrasada, pero consistente
+        }
         try {
-            mutex.acquire();
-            snapshot = listaInterna.aArreglo();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Hilo interrumpido al intentar obtener snapshot: " + e.getMessage());
+            cache = ultimoSnapshot;
+            if (cache.version != version) {
+                ProcessControlBlock[] copia = estructuraInterna.estaVacia() ? SIN_PROCESOS : estructuraInterna.aArreglo();
+                cache = new SnapshotVersionado(version, copia);
+                ultimoSnapshot = cache;
+            }
         } finally {
             mutex.release();
         }
-        return snapshot;
+        return cache.procesos;
     }
 
-    public int obtenerTamanoSeguro() {
-        int tamano = 0;
+    /**
+     * Extrae hasta 'maximo' procesos del frente en una sola adquisición del semáforo.
+     * Evita el patrón "consultar tamaño y luego desencolar" con dos bloqueos separados.
+     * @param destino Arreglo donde se depositan los procesos extraídos (desde la posición 0).
+     * @param maximo Cantidad máxima a extraer (se acota al largo del destino).
+     * @return Cantidad de procesos efectivamente extraídos.
+     */
+    public int drenar(ProcessControlBlock[] destino, int maximo) {
+        if (tamanoPublicado == 0) {
+            return 0;
+        }
+        int limite = Math.min(maximo, destino.length);
+        int extraidos = 0;
         try {
             mutex.acquire();
-            tamano = listaInterna.getTamano();
+            while (extraidos < limite && !estructuraInterna.estaVacia()) {
+                destino[extraidos++] = estructuraInterna.eliminarPrimero();
+            }
+            if (extraidos > 0) {
+                publicarCambio();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("Hilo interrumpido al intentar obtener tamaño: " + e.getMessage());
+            System.err.println("Hilo interrumpido al intentar drenar la cola: " + e.getMessage());
         } finally {
             mutex.release();
         }
-        return tamano;
+        return extraidos;
+    }
+
+    private void notificarEncolado(ProcessControlBlock pcb) {
+        for (OyenteCola oyente : oyentes) {
+            oyente.alEncolar(this, pcb);
+        }
+    }
+
+    /**
+     * Registra una mutación: nueva versión y tamaño publicado. Requiere el mutex tomado.
+     */
+    private void publicarCambio() {
+        tamanoPublicado = estructuraInterna.getTamano();
+        mapaNivelesPublicado = (estructuraInterna instanceof ColaMultinivel multinivel)
+                ? multinivel.getMapaNiveles()
+                : 0L;
+        version++;
+    }
+
+    /**
+     * @return Versión actual de la cola (cambia con cada mutación).
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Lectura sin bloqueo del tamaño publicado por la última mutación.
+     * @return 
+     */
+    @Override
+    public int obtenerTamanoSeguro() {
+        return tamanoPublicado;
+    }
+
+    /**
+     * Lectura sin bloqueo del mapa de bits de niveles ocupados (bit i = hay procesos
+     * con clave i). Solo es significativo cuando el criterio es PRIORIDAD.
+     * @return Mapa de bits publicado por la última mutación.
+     */
+    public long getMapaNiveles() {
+        return mapaNivelesPublicado;
+    }
+
+    /**
+     * Consulta sin bloqueo de la vacuidad de la cola.
+     * @return true si la última mutación dejó la cola vacía.
+     */
+    public boolean estaVacia() {
+        return tamanoPublicado == 0;
     }
 }
\ No newline at end of file
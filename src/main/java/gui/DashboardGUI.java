@@ -28,6 +28,7 @@ public class DashboardGUI {
     private JButton btnGenerarMasivo;
     private JButton btnEmergencia;
     private JSpinner spinDuracionCiclo;
+    private JCheckBox chkSinTicks;
     private JComboBox<String> comboPoliticas;
     private JTextArea txtLogEventos;
     
@@ -38,6 +39,10 @@ public class DashboardGUI {
     private final Procesador cpu;
     private final RelojSistema reloj;
 
+    // Opcional: trabajo descartado ante sobrecarga (lo consulta solo el HiloActualizadorGUI)
+    private volatile GestorSobrecarga gestorSobrecarga;
+    private int descartadosRegistrados;
+
     public DashboardGUI(GestorMemoria memoria, Procesador cpu, RelojSistema reloj) {
         this.gestorMemoria = memoria;
         this.cpu = cpu;
@@ -109,7 +114,14 @@ public class DashboardGUI {
             }
         });
 
-        String[] politicas = {"FCFS", "Round Robin", "SRT", "Prioridad Estática", "EDF"};
+        // Sin ticks el reloj duerme hasta el próximo ciclo de interés y lo ejecuta en lote
+        chkSinTicks = new JCheckBox("Sin ticks", reloj.isModoSinTicks());
+        chkSinTicks.addActionListener(e -> {
+            reloj.setModoSinTicks(chkSinTicks.isSelected());
+            agregarLog("Reloj sin ticks " + (chkSinTicks.isSelected() ? "activado." : "desactivado."));
+        });
+
+        String[] politicas = {"FCFS", "Round Robin", "SRT", "Prioridad Estática", "EDF", "MLFQ", "LLF"};
         comboPoliticas = new JComboBox<>(politicas);
 
         panelControles.add(btnGenerarMasivo);
@@ -117,6 +129,7 @@ public class DashboardGUI {
         panelControles.add(new JLabel("Velocidad:"));
         panelControles.add(spinDuracionCiclo);
         panelControles.add(btnAplicarVelocidad);
+        panelControles.add(chkSinTicks);
         panelControles.add(new JLabel("Política:"));
         panelControles.add(comboPoliticas);
 
@@ -154,8 +167,8 @@ public class DashboardGUI {
             for (ProcessControlBlock pcb : datos) {
                 if (pcb != null) {
                     // --- NUEVO BLOQUE VISUAL PARA DEADLINES ---
-                    int tr = pcb.getTiempoRestanteDeadline();
-                    String deadlineVisual = (tr < 0) ? "¡VENCIDO! (" + tr + ")" : tr + " ciclos";
+                    int tr = pcb.getTiempoRestanteDeadline(reloj.getCicloGlobal());
+                    String deadlineVisual = (tr < 0 || pcb.isDeadlineVencido()) ? "¡VENCIDO! (" + tr + ")" : tr + " ciclos";
                     // ------------------------------------------
 
                     modelo.addRow(new Object[]{
@@ -176,9 +189,9 @@ public class DashboardGUI {
         SwingUtilities.invokeLater(() -> {
             if (enCpu != null) {
                 // --- Lógica Visual de Deadline ---
-                int tr = enCpu.getTiempoRestanteDeadline();
+                int tr = enCpu.getTiempoRestanteDeadline(reloj.getCicloGlobal());
                 // Si es menor a cero, lo ponemos en rojo y dice VENCIDO
-                String deadlineVisual = (tr < 0) ? "<font color='red'><b>¡VENCIDO! (" + tr + ")</b></font>" : tr + " ciclos";
+                String deadlineVisual = (tr < 0 || enCpu.isDeadlineVencido()) ? "<font color='red'><b>¡VENCIDO! (" + tr + ")</b></font>" : tr + " ciclos";
                 
                 // Actualizamos la etiqueta de la CPU agregando también el MAR
                 lblProcesoCPU.setText("<html><center>" + 
@@ -225,10 +238,8 @@ public class DashboardGUI {
         btnEmergencia.addActionListener(e -> {
             agregarLog("¡ALERTA! Interrupción detectada: Micro-Meteorito.");
             
-            // Creamos un hilo mensajero para no bloquear la interfaz (EDT)
-            new Thread(() -> {
-                inyector.dispararInterrupcionHardware("Micro-Meteorito", 25);
-            }, "Hilo-Interrupcion-Hardware").start();
+            // Solo anota la solicitud en el controlador: no bloquea la interfaz (EDT) ni crea hilos
+            inyector.dispararInterrupcionHardware("Micro-Meteorito", 25);
         });
 
         comboPoliticas.addActionListener(e -> {
@@ -240,6 +251,8 @@ public class DashboardGUI {
                 case "SRT": nuevaPolitica = new PoliticaSRT(); break;
                 case "Prioridad Estática": nuevaPolitica = new PoliticaPrioridadEstatica(); break;
                 case "EDF": nuevaPolitica = new PoliticaEDF(); break;
+                case "MLFQ": nuevaPolitica = new PoliticaMLFQ(); break;
+                case "LLF": nuevaPolitica = new PoliticaLLF(); break;
             }
             if (nuevaPolitica != null && planificador != null) {
                 planificador.setPolitica(nuevaPolitica);
@@ -248,6 +261,26 @@ public class DashboardGUI {
         });
     }
 
+    public void setGestorSobrecarga(GestorSobrecarga gestorSobrecarga) {
+        this.gestorSobrecarga = gestorSobrecarga;
+    }
+
+    /**
+     * Escribe en el log el resumen del GestorSobrecarga si trató procesos nuevos
+     * desde la última consulta.
+     */
+    public void registrarSobrecarga() {
+        GestorSobrecarga gestor = this.gestorSobrecarga;
+        if (gestor == null) {
+            return;
+        }
+        int total = gestor.getTotalDescartados();
+        if (total != descartadosRegistrados) {
+            descartadosRegistrados = total;
+            agregarLog(gestor.getResumen());
+        }
+    }
+
     public void agregarLog(String mensaje) {
         SwingUtilities.invokeLater(() -> {
             txtLogEventos.append("> " + mensaje + "\n");
@@ -71,7 +71,10 @@ public class HiloActualizadorGUI extends Thread {
                     telemetria.agregarPuntoUsoCPU(cicloActual, usoCPU);
                 }
 
-                // 6. Esperar hasta el próximo ciclo de refresco
+                // 6. Reportar en el log el trabajo descartado por sobrecarga
+                guiPrincipal.registrarSobrecarga();
+
+                // 7. Esperar hasta el próximo ciclo de refresco
                 Thread.sleep(tasaRefrescoMs);
 
             } catch (InterruptedException e) {
@@ -77,8 +77,8 @@ public class PanelTelemetria extends JPanel {
 
         totalProcesosTerminados++;
         
-        // Si el tiempo restante es >= 0, significa que cumplió o empató con el deadline
-        if (pcb.getTiempoRestanteDeadline() >= 0) {
+        // Cumplió si terminó a más tardar en su ciclo límite y el monitor no lo marcó vencido
+        if (!pcb.isDeadlineVencido() && pcb.cumplioDeadline()) {
             totalDeadlinesCumplidos++;
         }
 
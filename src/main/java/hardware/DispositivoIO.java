@@ -0,0 +1,256 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package hardware;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Dispositivo de E/S con nombre (disco, radio, bus de sensores...).
+ * Atiende a lo sumo "canales" solicitudes a la vez; las demás esperan en su cola
+ * propia y se despachan según la disciplina configurada:
+ * FIFO por orden de llegada, o SSTF (la más cercana a la posición del cabezal).
+ *
+ * Tiempo de servicio de una solicitud, en ciclos (mínimo 1):
+ * latencia + distancia recorrida * ciclosPorPista + techo(unidades / unidadesPorCiclo),
+ * donde las unidades son los ciclosParaSatisfacerIO del PCB.
+ *
+ * Solo lo usa el hilo del reloj (a través del GestorEntradaSalida); los
+ * lectores de métricas pueden ver valores ligeramente desfasados.
+ */
+public class DispositivoIO {
+
+    /**
+     * Orden en que se despachan las solicitudes en espera.
+     */
+    public enum Disciplina {
+        FIFO,
+        SSTF
+    }
+
+    /**
+     * Canales para un dispositivo sin límite de concurrencia.
+     */
+    public static final int SIN_LIMITE = Integer.MAX_VALUE;
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final String nombre;
+    private final Disciplina disciplina;
+    private final int canales;
+    private final int latenciaCiclos;
+    private final int unidadesPorCiclo;
+    private int ciclosPorPista;
+
+    // Cola de espera en anillo, con el ciclo de llegada de cada solicitud
+    private ProcessControlBlock[] espera;
+    private int[] llegadaEspera;
+    private int inicio;
+    private int enCola;
+
+    private int enServicio;
+    private int posicionCabezal;
+
+    // Métricas
+    private volatile long atendidas;
+    private volatile long ciclosServicio;
+    private volatile long ciclosEspera;
+    private volatile int maximoEnCola;
+
+    /**
+     * @param nombre Identificador con el que los PCB lo declaran.
+     * @param disciplina FIFO o SSTF.
+     * @param canales Solicitudes atendidas en paralelo (SIN_LIMITE = sin contención).
+     * @param latenciaCiclos Costo fijo de cada solicitud.
+     * @param unidadesPorCiclo Ancho de banda (>= 1).
+     */
+    public DispositivoIO(String nombre, Disciplina disciplina, int canales, int latenciaCiclos, int unidadesPorCiclo) {
+        this.nombre = nombre;
+        this.disciplina = disciplina;
+        this.canales = Math.max(1, canales);
+        this.latenciaCiclos = Math.max(0, latenciaCiclos);
+        this.unidadesPorCiclo = Math.max(1, unidadesPorCiclo);
+        this.ciclosPorPista = 0;
+        this.espera = new ProcessControlBlock[CAPACIDAD_INICIAL];
+        this.llegadaEspera = new int[CAPACIDAD_INICIAL];
+        this.inicio = 0;
+        this.enCola = 0;
+        this.enServicio = 0;
+        this.posicionCabezal = 0;
+        this.atendidas = 0;
+        this.ciclosServicio = 0;
+        this.ciclosEspera = 0;
+        this.maximoEnCola = 0;
+    }
+
+    /**
+     * Costo de desplazar el cabezal una posición (modela el seek de un disco).
+     * @param ciclosPorPista
+     */
+    public void setCiclosPorPista(int ciclosPorPista) {
+        this.ciclosPorPista = Math.max(0, ciclosPorPista);
+    }
+
+    public boolean hayCanalLibre() {
+        return enServicio < canales;
+    }
+
+    /**
+     * Ocupa un canal con la solicitud del proceso.
+     * @param pcb
+     * @param ciclo Ciclo en que empieza el servicio.
+     * @return Ciclo en que termina.
+     */
+    public int iniciarServicio(ProcessControlBlock pcb, int ciclo) {
+        int destino = pcb.getPosicionIO();
+        long servicio = latenciaCiclos
+                + (long) Math.abs(destino - posicionCabezal) * ciclosPorPista
+                + (pcb.getCiclosParaSatisfacerIO() + unidadesPorCiclo - 1L) / unidadesPorCiclo;
+        int duracion = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(1, servicio));
+        posicionCabezal = destino;
+        enServicio++;
+        ciclosServicio += duracion;
+        return ciclo + duracion;
+    }
+
+    /**
+     * Libera el canal de una solicitud que terminó.
+     */
+    public void finalizarServicio() {
+        if (enServicio > 0) {
+            enServicio--;
+        }
+        atendidas++;
+    }
+
+    /**
+     * Deja la solicitud esperando un canal libre.
+     * @param pcb
+     * @param ciclo Ciclo de llegada al dispositivo.
+     */
+    public void encolar(ProcessControlBlock pcb, int ciclo) {
+        if (enCola == espera.length) {
+            crecer();
+        }
+        int posicion = (inicio + enCola) % espera.length;
+        espera[posicion] = pcb;
+        llegadaEspera[posicion] = ciclo;
+        enCola++;
+        if (enCola > maximoEnCola) {
+            maximoEnCola = enCola;
+        }
+    }
+
+    /**
+     * Retira la próxima solicitud según la disciplina.
+     * SSTF recorre la cola (O(n)); los empates se resuelven a favor de la más antigua.
+     * @param ciclo Ciclo actual (para medir la espera).
+     * @return El proceso, o null si no hay solicitudes en espera.
+     */
+    public ProcessControlBlock siguiente(int ciclo) {
+        if (enCola == 0) {
+            return null;
+        }
+        int elegido = 0;
+        if (disciplina == Disciplina.SSTF) {
+            int mejorDistancia = Integer.MAX_VALUE;
+            for (int i = 0; i < enCola; i++) {
+                int distancia = Math.abs(espera[(inicio + i) % espera.length].getPosicionIO() - posicionCabezal);
+                if (distancia < mejorDistancia) {
+                    mejorDistancia = distancia;
+                    elegido = i;
+                }
+            }
+        }
+        int posicion = (inicio + elegido) % espera.length;
+        ProcessControlBlock pcb = espera[posicion];
+        ciclosEspera += ciclo - llegadaEspera[posicion];
+
+        // Cerrar el hueco corriendo hacia adelante las solicitudes más antiguas
+        for (int i = elegido; i > 0; i--) {
+            int destino = (inicio + i) % espera.length;
+            int origen = (inicio + i - 1) % espera.length;
+            espera[destino] = espera[origen];
+            llegadaEspera[destino] = llegadaEspera[origen];
+        }
+        espera[inicio] = null;
+        inicio = (inicio + 1) % espera.length;
+        enCola--;
+        return pcb;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Disciplina getDisciplina() {
+        return disciplina;
+    }
+
+    public int getCanales() {
+        return canales;
+    }
+
+    public int getEnServicio() {
+        return enServicio;
+    }
+
+    public int getEnCola() {
+        return enCola;
+    }
+
+    public int getMaximoEnCola() {
+        return maximoEnCola;
+    }
+
+    public long getAtendidas() {
+        return atendidas;
+    }
+
+    /**
+     * @return Ciclos promedio que una solicitud esperó un canal libre.
+     */
+    public double getEsperaPromedio() {
+        long n = atendidas + enServicio;
+        return (n == 0) ? 0.0 : (double) ciclosEspera / n;
+    }
+
+    /**
+     * Fracción de la capacidad usada desde el ciclo 0 (1.0 = saturado).
+     * Para un dispositivo SIN_LIMITE es el promedio de canales ocupados.
+     * @param cicloActual
+     * @return
+     */
+    public double getUtilizacion(int cicloActual) {
+        if (cicloActual <= 0) {
+            return 0.0;
+        }
+        double ocupados = (double) ciclosServicio / cicloActual;
+        return (canales == SIN_LIMITE) ? ocupados : ocupados / canales;
+    }
+
+    /**
+     * @param cicloActual
+     * @return Una línea con utilización, cola y espera.
+     */
+    public String resumen(int cicloActual) {
+        return String.format("%s [%s x%s] util=%.1f%% atendidas=%d cola=%d (max %d) espera=%.1f ciclos",
+                nombre, disciplina, (canales == SIN_LIMITE) ? "inf" : String.valueOf(canales),
+                100.0 * getUtilizacion(cicloActual), atendidas, enCola, maximoEnCola, getEsperaPromedio());
+    }
+
+    private void crecer() {
+        int nueva = espera.length * 2;
+        ProcessControlBlock[] mayor = new ProcessControlBlock[nueva];
+        int[] llegadasMayor = new int[nueva];
+        for (int i = 0; i < enCola; i++) {
+            int origen = (inicio + i) % espera.length;
+            mayor[i] = espera[origen];
+            llegadasMayor[i] = llegadaEspera[origen];
+        }
+        espera = mayor;
+        llegadaEspera = llegadasMayor;
+        inicio = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package hardware;
+
+/**
+ * Histograma logarítmico de latencias en nanosegundos.
+ * La cubeta 0 cuenta las muestras menores a 1 µs y la cubeta i (i >= 1) las que
+ * caen en [2^(i-1), 2^i) µs; la última acumula todo lo que la supera. Registrar
+ * una muestra es O(1) y no reserva memoria.
+ *
+ * Pensado para un único escritor (el hilo del reloj); los lectores pueden ver
+ * conteos ligeramente desfasados entre sí, suficiente para telemetría.
+ */
+public class HistogramaLatencia {
+
+    public static final int CUBETAS = 24; // Hasta ~4 s en la última cubeta
+
+    private final long[] conteos;
+    private volatile long muestras;
+    private volatile long maximoNanos;
+    private volatile long sumaNanos;
+
+    public HistogramaLatencia() {
+        this.conteos = new long[CUBETAS];
+        this.muestras = 0;
+        this.maximoNanos = 0;
+        this.sumaNanos = 0;
+    }
+
+    /**
+     * @param nanos Latencia observada (los valores negativos cuentan como 0).
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        conteos[cubetaDe(valor)]++;
+        sumaNanos += valor;
+        if (valor > maximoNanos) {
+            maximoNanos = valor;
+        }
+        muestras++;
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = 0;
+        }
+        muestras = 0;
+        maximoNanos = 0;
+        sumaNanos = 0;
+    }
+
+    public long getConteo(int cubeta) {
+        return conteos[cubeta];
+    }
+
+    public long getMuestras() {
+        return muestras;
+    }
+
+    public long getMaximoNanos() {
+        return maximoNanos;
+    }
+
+    public long getPromedioNanos() {
+        long n = muestras;
+        return (n == 0) ? 0 : sumaNanos / n;
+    }
+
+    /**
+     * Cota superior (límite de la cubeta) bajo la que cae la fracción pedida de muestras.
+     * @param fraccion Entre 0.0 y 1.0 (ej. 0.99 para el percentil 99).
+     * @return Nanosegundos; 0 si no hay muestras.
+     */
+    public long percentilNanos(double fraccion) {
+        long n = muestras;
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(fraccion * n);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo) {
+                return limiteSuperiorNanos(i);
+            }
+        }
+        return maximoNanos;
+    }
+
+    /**
+     * @param cubeta
+     * @return Límite superior (exclusivo) de la cubeta, en nanosegundos.
+     */
+    public static long limiteSuperiorNanos(int cubeta) {
+        return 1_000L << cubeta;
+    }
+
+    /**
+     * @return Una línea con promedio, p50, p99 y máximo en microsegundos.
+     */
+    public String resumen() {
+        return String.format("n=%d prom=%.1fus p50<%dus p99<%dus max=%.1fus",
+                muestras, getPromedioNanos() / 1e3,
+                percentilNanos(0.50) / 1_000, percentilNanos(0.99) / 1_000, maximoNanos / 1e3);
+    }
+
+    private static int cubetaDe(long nanos) {
+        long micros = nanos / 1_000;
+        if (micros == 0) {
+            return 0;
+        }
+        int cubeta = 64 - Long.numberOfLeadingZeros(micros); // 1 µs -> 1, 2-3 µs -> 2, ...
+        return Math.min(cubeta, CUBETAS - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package hardware;
+
+import modelos.ProcessControlBlock;
+
+/**
+ * Destino de las excepciones de E/S que atrapa el Procesador.
+ * Se invoca desde el hilo del reloj en medio del pulso, con el proceso ya fuera
+ * de la CPU: las implementaciones solo deben registrar la solicitud y atenderla
+ * después (ej. en su propio alPulsoReloj), sin bloquearse.
+ */
+public interface OyenteExcepcionIO {
+
+    /**
+     * @param cpu Núcleo que atrapó la excepción.
+     * @param pcb Proceso que alcanzó su punto de E/S.
+     * @param ciclo Ciclo en que ejecutó su última instrucción antes de la solicitud.
+     */
+    void alExcepcionIO(Procesador cpu, ProcessControlBlock pcb, int ciclo);
+}
\ No newline at end of file
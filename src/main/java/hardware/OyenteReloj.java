@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package hardware;
+
+/**
+ * Observador del pulso del RelojSistema.
+ * Se invoca desde el hilo del reloj después de que la CPU ejecutó el ciclo,
+ * por lo que las implementaciones deben ser breves y no bloquearse.
+ * El aviso trae el último ciclo completado, que puede saltar varios ciclos de
+ * una vez (lotes sin ticks o saltos en tiempo virtual).
+ */
+public interface OyenteReloj {
+
+    /**
+     * @param cicloGlobal Ciclo que el reloj acaba de completar.
+     */
+    void alPulsoReloj(int cicloGlobal);
+
+    /**
+     * Próximo ciclo en que este oyente necesita ser notificado (reloj sin ticks).
+     * Entre pulsos puede recibir saltos de varios ciclos. Por defecto pide todos.
+     * @param cicloActual Último ciclo completado.
+     * @return Ciclo absoluto (Integer.MAX_VALUE si no tiene nada pendiente).
+     */
+    default int proximoCicloDeInteres(int cicloActual) {
+        return cicloActual + 1;
+    }
+}
\ No newline at end of file
@@ -6,108 +6,335 @@ package hardware;
 
 
 import modelos.ProcessControlBlock;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Representa la Unidad Central de Procesamiento (CPU).
- * Maneja la ejecución del proceso actual con exclusión mutua estricta.
+ * El proceso en ejecución vive en una referencia atómica: asignar y desalojar son
+ * transiciones CAS y el pulso del reloj solo lee la referencia, así que el camino
+ * del pulso no espera nunca, aunque el planificador y la GUI consulten la CPU.
+ *
+ * Las interrupciones de hardware secuestran la CPU por nivel (0 a 63, mayor = más
+ * urgente) en lugar de tomar un semáforo: mientras haya un secuestro activo el
+ * proceso en curso queda congelado (conserva su contexto y no avanza). Un nivel
+ * más alto puede anidarse sobre uno más bajo; uno igual o más bajo es rechazado.
+ *
+ * Con un OyenteExcepcionIO conectado, el proceso que alcanza su punto de E/S es
+ * atrapado al final de ese ciclo: sale de la CPU y se entrega al oyente.
  */
 public class Procesador {
 
-    private ProcessControlBlock procesoActual;
-    private final java.util.concurrent.Semaphore cpuMutex;
+    public static final int NIVELES_SECUESTRO = 64;
+
+    private final AtomicReference<ProcessControlBlock> procesoActual;
+
+    // Bit i encendido = hay una interrupción de nivel i usando la CPU
+    private final AtomicLong nivelesSecuestro;
+
+    // Lo enciende el pulso mientras avanza al proceso; desalojar y secuestrar esperan a que se apague
+    private volatile boolean enCiclo;
+
+    // Reloj que ejecuta a este núcleo: se le avisa antes de cambiar el proceso para cortar lotes
+    private volatile RelojSistema reloj;
+
+    // Subsistema que recibe las solicitudes de E/S atrapadas (null = la E/S no se atrapa)
+    private volatile OyenteExcepcionIO oyenteIO;
+
+    // Identidad del núcleo en simulaciones multinúcleo (SMP)
+    private final int idNucleo;
+
+    // Métricas del núcleo: solo las escribe el hilo del reloj
+    private volatile long ciclosTotales;
+    private volatile long ciclosOcupados;
+    private volatile long ciclosSecuestrados;
 
     /**
-     * Constructor que inicializa el semáforo para garantizar exclusión mutua.
+     * Constructor de un núcleo único.
      */
     public Procesador() {
-        this.procesoActual = null;
-        // Semáforo instanciado en 1 (comportamiento de Mutex binario)
-        this.cpuMutex = new Semaphore(1);
+        this(0);
+    }
+
+    /**
+     * @param idNucleo Número de núcleo dentro del computador multinúcleo.
+     */
+    public Procesador(int idNucleo) {
+        this.procesoActual = new AtomicReference<>(null);
+        this.nivelesSecuestro = new AtomicLong(0L);
+        this.enCiclo = false;
+        this.idNucleo = idNucleo;
+        this.ciclosTotales = 0;
+        this.ciclosOcupados = 0;
+        this.ciclosSecuestrados = 0;
     }
 
     /**
-     * Asigna un nuevo proceso a la CPU.
-     * Protegido por Semáforo.
+     * Asigna un nuevo proceso a la CPU si está libre (CAS de vacía a ocupada).
      * @param pcb
+     * @return true si quedó asignado; false si la CPU ya tenía un proceso.
      */
-    public void asignarProceso(ProcessControlBlock pcb) {
+    public boolean asignarProceso(ProcessControlBlock pcb) {
+        if (pcb == null) {
+            return true;
+        }
+        RelojSistema r = cortarLoteDelReloj();
+        boolean asignado;
         try {
-            cpuMutex.acquire();
-            this.procesoActual = pcb;
-            if (this.procesoActual != null) {
-                // Mapeo estricto del estado utilizando el Enum interno del PCB
-                this.procesoActual.setEstado(ProcessControlBlock.EstadoProceso.EJECUCION);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Interrupción durante la asignación de proceso en CPU.");
+            asignado = procesoActual.compareAndSet(null, pcb);
         } finally {
-            cpuMutex.release();
+            reanudarLotesDelReloj(r);
+        }
+        if (!asignado) {
+            return false;
         }
+        // Mapeo estricto del estado utilizando el Enum interno del PCB
+        pcb.setEstado(ProcessControlBlock.EstadoProceso.EJECUCION);
+        return true;
     }
 
     /**
      * Desaloja el proceso actual de la CPU, dejándola inactiva.
-     * Protegido por Semáforo.
-     * @return 
+     * Al retornar, el pulso ya no puede estar avanzando al proceso desalojado.
+     * @return El proceso desalojado, o null si la CPU estaba libre.
      */
     public ProcessControlBlock desalojarProceso() {
-        ProcessControlBlock pcbDesalojado = null;
+        RelojSistema r = cortarLoteDelReloj();
         try {
-            cpuMutex.acquire();
-            pcbDesalojado = this.procesoActual;
-            this.procesoActual = null;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Interrupción durante el desalojo de proceso en CPU.");
+            ProcessControlBlock pcbDesalojado = procesoActual.getAndSet(null);
+            if (pcbDesalojado != null) {
+                esperarFinDeCiclo();
+            }
+            return pcbDesalojado;
         } finally {
-            cpuMutex.release();
+            reanudarLotesDelReloj(r);
         }
-        return pcbDesalojado;
     }
 
     /**
      * Avanza el estado interno del proceso actual.
-     * Es invocado por el RelojSistema. También se protege con Mutex 
-     * para evitar inconsistencias si el despachador interrumpe en este microsegundo.
+     * Es invocado por el RelojSistema y nunca se bloquea: si la CPU está secuestrada
+     * por una interrupción, el ciclo se atribuye a la rutina y el proceso no avanza.
+     * @param cicloGlobal Ciclo que el reloj está completando.
      */
-    public void ejecutarCiclo() {
+    public void ejecutarCiclo(int cicloGlobal) {
+        ejecutarCiclos(cicloGlobal, 1);
+    }
+
+    /**
+     * Ejecuta un lote de ciclos consecutivos en una sola llamada (reloj sin ticks).
+     * El proceso avanza a lo sumo hasta su última instrucción; el resto del lote
+     * cuenta como ciclos ociosos.
+     * @param primerCiclo Ciclo global del primer ciclo del lote.
+     * @param ciclos Cantidad de ciclos (>= 1).
+     */
+    public void ejecutarCiclos(int primerCiclo, int ciclos) {
+        OyenteExcepcionIO oyente = oyenteIO;
+        ProcessControlBlock atrapado = null;
+        int cicloExcepcion = primerCiclo;
+        enCiclo = true;
         try {
-            cpuMutex.acquire();
-            if (this.procesoActual != null) {
-                this.procesoActual.avanzarCicloReloj();
+            ciclosTotales += ciclos;
+            if (nivelesSecuestro.get() != 0L) {
+                ciclosSecuestrados += ciclos;
+                return;
+            }
+            ProcessControlBlock actual = procesoActual.get();
+            if (actual != null) {
+                int hastaIO = (oyente != null) ? actual.getCiclosHastaExcepcionIO() : Integer.MAX_VALUE;
+                if (hastaIO > ciclos) {
+                    if (ciclos == 1) {
+                        actual.avanzarCicloReloj(primerCiclo);
+                        ciclosOcupados++;
+                    } else {
+                        ciclosOcupados += actual.avanzarCiclosReloj(ciclos, primerCiclo);
+                    }
+                } else {
+                    // Ejecuta hasta su punto de E/S; la trampa ocupa el ciclo aunque no avance
+                    int ejecutados = (hastaIO > 0) ? actual.avanzarCiclosReloj(hastaIO, primerCiclo) : 0;
+                    ciclosOcupados += Math.max(1, ejecutados);
+                    cicloExcepcion = primerCiclo + Math.max(1, ejecutados) - 1;
+                    // Si el planificador lo desalojó a la vez, se atrapa en su próximo despacho
+                    if (procesoActual.compareAndSet(actual, null)) {
+                        actual.setSolicitudIORealizada(true);
+                        atrapado = actual;
+                    }
+                }
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         } finally {
-            cpuMutex.release();
+            enCiclo = false;
+        }
+        if (atrapado != null) {
+            oyente.alExcepcionIO(this, atrapado, cicloExcepcion);
         }
     }
 
     /**
-     * Retorna la referencia del proceso actual de forma segura para la GUI u otros hilos observadores.
-     * Protegido por Semáforo.
+     * Próximo ciclo en que este núcleo cambia algo observable sin intervención externa:
+     * la última instrucción del proceso en curso o su solicitud de E/S.
+     * @param cicloActual Último ciclo completado.
+     * @return Ciclo absoluto, o Integer.MAX_VALUE si está ocioso o secuestrado.
+     */
+    public int proximoCicloDeInteres(int cicloActual) {
+        if (nivelesSecuestro.get() != 0L) {
+            return Integer.MAX_VALUE; // El retorno de la interrupción corta el lote
+        }
+        ProcessControlBlock actual = procesoActual.get();
+        if (actual == null) {
+            return Integer.MAX_VALUE;
+        }
+        int hasta = actual.getInstruccionesRestantes();
+        if (oyenteIO != null) {
+            hasta = Math.min(hasta, actual.getCiclosHastaExcepcionIO());
+        }
+        return cicloActual + Math.max(1, hasta);
+    }
+
+    /**
+     * Retorna la referencia del proceso actual (lectura atómica, sin bloqueo)
+     * para el planificador, la GUI u otros hilos observadores.
      * @return 
      */
     public ProcessControlBlock getProcesoActualSeguro() {
-        ProcessControlBlock snapshot = null;
+        return procesoActual.get();
+    }
+
+    /**
+     * Intenta secuestrar la CPU para una rutina de interrupción.
+     * Se concede si no hay otra interrupción de nivel igual o mayor en curso; al
+     * retornar true, el proceso en ejecución ya está congelado.
+     * @param nivel Nivel de la interrupción (0 a NIVELES_SECUESTRO - 1).
+     * @return true si se concedió; false si debe reintentar más tarde.
+     */
+    public boolean secuestrar(int nivel) {
+        long bit = 1L << nivel;
+        long bloqueantes = -bit; // Este nivel y todos los superiores
+        RelojSistema r = cortarLoteDelReloj();
         try {
-            cpuMutex.acquire();
-            snapshot = this.procesoActual;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            while (true) {
+                long actuales = nivelesSecuestro.get();
+                if ((actuales & bloqueantes) != 0L) {
+                    return false;
+                }
+                if (nivelesSecuestro.compareAndSet(actuales, actuales | bit)) {
+                    esperarFinDeCiclo();
+                    return true;
+                }
+            }
         } finally {
-            cpuMutex.release();
+            reanudarLotesDelReloj(r);
         }
-        return snapshot;
     }
-    
+
     /**
-     * Retorna el semáforo de la CPU para interrupciones críticas de hardware.
-     * @return 
+     * Libera el secuestro de un nivel (el orden de liberación entre niveles es libre).
+     * @param nivel
+     */
+    public void liberarSecuestro(int nivel) {
+        long bit = 1L << nivel;
+        RelojSistema r = cortarLoteDelReloj();
+        try {
+            while (true) {
+                long actuales = nivelesSecuestro.get();
+                if (nivelesSecuestro.compareAndSet(actuales, actuales & ~bit)) {
+                    return;
+                }
+            }
+        } finally {
+            reanudarLotesDelReloj(r);
+        }
+    }
+
+    /**
+     * @return true si alguna interrupción tiene la CPU.
+     */
+    public boolean estaSecuestrada() {
+        return nivelesSecuestro.get() != 0L;
+    }
+
+    /**
+     * @return Nivel más alto en curso, o -1 si la CPU no está secuestrada.
+     */
+    public int getNivelSecuestro() {
+        long actuales = nivelesSecuestro.get();
+        return (actuales == 0L) ? -1 : 63 - Long.numberOfLeadingZeros(actuales);
+    }
+
+    /**
+     * Contabiliza ciclos en los que el núcleo estuvo ocioso sin ejecutarlos uno a uno
+     * (saltos del reloj en tiempo virtual).
+     * @param ciclos
+     */
+    public void registrarCiclosOciosos(int ciclos) {
+        ciclosTotales += ciclos;
+    }
+
+    /**
+     * Conecta el subsistema que atiende las excepciones de E/S de este núcleo.
+     * @param oyente
+     */
+    public void setOyenteExcepcionIO(OyenteExcepcionIO oyente) {
+        this.oyenteIO = oyente;
+    }
+
+    /**
+     * Conecta el reloj que ejecuta a este núcleo (lo llama RelojSistema al registrarlo).
+     * @param reloj
+     */
+    void conectarReloj(RelojSistema reloj) {
+        this.reloj = reloj;
+    }
+
+    /**
+     * Un lote de ciclos en curso asume que el proceso no cambia: antes de tocarlo,
+     * el reloj liquida los ciclos ya transcurridos y no abre otro lote hasta reanudar.
+     */
+    private RelojSistema cortarLoteDelReloj() {
+        RelojSistema r = reloj;
+        if (r != null) {
+            r.cortarLote();
+        }
+        return r;
+    }
+
+    private static void reanudarLotesDelReloj(RelojSistema r) {
+        if (r != null) {
+            r.reanudarLotes();
+        }
+    }
+
+    /**
+     * Espera (activamente, a lo sumo un pulso en curso) a que el reloj termine de
+     * avanzar al proceso que leyó. Tras un CAS en la referencia o en los niveles,
+     * cualquier pulso posterior ya observa el nuevo estado.
+     */
+    private void esperarFinDeCiclo() {
+        while (enCiclo) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public int getIdNucleo() {
+        return idNucleo;
+    }
+
+    public long getCiclosTotales() {
+        return ciclosTotales;
+    }
+
+    public long getCiclosOcupados() {
+        return ciclosOcupados;
+    }
+
+    public long getCiclosSecuestrados() {
+        return ciclosSecuestrados;
+    }
+
+    /**
+     * @return Fracción de ciclos en que el núcleo ejecutó un proceso (0.0 a 1.0).
      */
-    public java.util.concurrent.Semaphore getMutex() {
-        return this.cpuMutex;
+    public double getUtilizacion() {
+        long totales = ciclosTotales;
+        return (totales == 0) ? 0.0 : (double) ciclosOcupados / totales;
     }
 }
\ No newline at end of file
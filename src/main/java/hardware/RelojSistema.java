@@ -4,18 +4,77 @@
  */
 package hardware;
 
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Representa el Marcapasos o "Mission Clock" del RTOS.
  * Corre en su propio hilo y dicta el avance del tiempo global.
+ *
+ * Los pulsos se programan contra instantes absolutos (inicio + n * periodo), no
+ * durmiendo un periodo después de trabajar: ni el trabajo del pulso ni el exceso
+ * de cada espera se acumulan, así que el reloj no deriva. Si se atrasa, ejecuta
+ * los pulsos pendientes seguidos hasta un máximo; más allá se resincroniza y
+ * descarta el atraso. El retraso de cada despertar (jitter) y la duración de los
+ * pulsos que exceden el periodo (sobreejecuciones) quedan en histogramas.
+ *
+ * Modo sin ticks (opcional): antes de cada espera el reloj pregunta a núcleos y
+ * oyentes cuál es el próximo ciclo en que algo puede pasar (fin de un proceso,
+ * fin de quantum, vencimiento de un temporizador) y duerme hasta ese ciclo de una
+ * vez, ejecutándolo como un lote con Procesador.ejecutarCiclos(). Cualquier cambio
+ * externo sobre un núcleo (despacho, desalojo, interrupción) corta el lote en el
+ * ciclo transcurrido: quien lo corta estaciona su hilo hasta que el reloj liquida
+ * el lote y lo despierta. Un oyente que programa algo dentro del lote solo acorta
+ * su final (acotarLote), sin esperar. getCicloGlobal() se deriva del tiempo real
+ * durante el lote, así que siempre es exacto; al cortarlo, el final se congela en
+ * el último ciclo transcurrido antes de liquidarlo, de modo que nunca retrocede.
  */
 public class RelojSistema implements Runnable {
 
-    private int cicloGlobal;
+    private volatile int cicloGlobal;
     private volatile int duracionCicloMs;
     private volatile boolean simulacionActiva;
+    private volatile Thread hiloReloj;
     
-    // Referencia al procesador para notificarle el pulso de reloj
-    private Procesador cpu;
+    // Núcleos a los que se les notifica el pulso de reloj (uno o varios en SMP)
+    private volatile Procesador[] procesadores;
+
+    // Observadores del pulso (copia al escribir: se registran pocas veces y se leen en cada ciclo)
+    private volatile OyenteReloj[] oyentes;
+    private final Semaphore registroMutex;
+
+    // Atraso máximo, en pulsos, que se recupera ejecutando seguido
+    private static final int MAX_PULSOS_RECUPERACION = 8;
+    // Tramo final de la espera que se resuelve girando en lugar de estacionar el hilo
+    private static final long MARGEN_GIRO_NANOS = 50_000L;
+
+    // Lote más largo que se ejecuta de una vez en modo sin ticks
+    public static final int MAX_CICLOS_LOTE = 4096;
+
+    // Estado del lote en curso (se publica antes de encender enLote)
+    private volatile boolean modoSinTicks;
+    private volatile boolean enLote;
+    // Cambia al publicar cada lote: un lector detecta si mezcló datos de dos lotes
+    private volatile long secuenciaLote;
+    private volatile int baseLote;
+    // Último ciclo del lote: solo puede bajar mientras corre (acotarLote)
+    private final AtomicInteger finLote;
+    private volatile long anclaLoteNanos;
+    private volatile long periodoLoteNanos;
+    // Hilos que están modificando un núcleo: mientras sea > 0 no se abren lotes
+    private final AtomicInteger bloqueosLote;
+    // Hilos estacionados esperando que se liquide el lote (copia al escribir)
+    private volatile Thread[] esperandoCierre;
+    private volatile long lotesEjecutados;
+    private volatile long lotesCortados;
+
+    // Calidad del tiempo real (solo las escribe el hilo del reloj)
+    private final HistogramaLatencia histogramaJitter;
+    private final HistogramaLatencia histogramaSobreejecucion;
+    private volatile long pulsosRecuperados;
+    private volatile long pulsosDescartados;
+    private volatile long resincronizaciones;
 
     /**
      * Constructor exacto solicitado.
@@ -25,6 +84,21 @@ public class RelojSistema implements Runnable {
         this.cicloGlobal = 0;
         this.duracionCicloMs = duracionInicialMs;
         this.simulacionActiva = false;
+        this.procesadores = new Procesador[0];
+        this.oyentes = new OyenteReloj[0];
+        this.registroMutex = new Semaphore(1);
+        this.histogramaJitter = new HistogramaLatencia();
+        this.histogramaSobreejecucion = new HistogramaLatencia();
+        this.pulsosRecuperados = 0;
+        this.pulsosDescartados = 0;
+        this.resincronizaciones = 0;
+        this.modoSinTicks = false;
+        this.enLote = false;
+        this.finLote = new AtomicInteger(Integer.MAX_VALUE);
+        this.bloqueosLote = new AtomicInteger(0);
+        this.esperandoCierre = new Thread[0];
+        this.lotesEjecutados = 0;
+        this.lotesCortados = 0;
     }
 
     /**
@@ -33,44 +107,484 @@ public class RelojSistema implements Runnable {
      * @param cpu
      */
     public void setProcesador(Procesador cpu) {
-        this.cpu = cpu;
+        cpu.conectarReloj(this);
+        this.procesadores = new Procesador[] { cpu };
+    }
+
+    /**
+     * Agrega un núcleo más al computador: todos avanzan con el mismo pulso.
+     * @param cpu
+     */
+    public void agregarProcesador(Procesador cpu) {
+        try {
+            registroMutex.acquire();
+            Procesador[] nuevos = new Procesador[procesadores.length + 1];
+            System.arraycopy(procesadores, 0, nuevos, 0, procesadores.length);
+            nuevos[procesadores.length] = cpu;
+            cpu.conectarReloj(this);
+            this.procesadores = nuevos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar un procesador en el reloj.");
+        } finally {
+            registroMutex.release();
+        }
+    }
+
+    /**
+     * @return Copia del arreglo de núcleos conectados.
+     */
+    public Procesador[] getProcesadores() {
+        return procesadores.clone();
+    }
+
+    /**
+     * Registra un observador que será notificado en cada pulso, después de la CPU.
+     * @param oyente
+     */
+    public void agregarOyente(OyenteReloj oyente) {
+        try {
+            registroMutex.acquire();
+            OyenteReloj[] nuevos = new OyenteReloj[oyentes.length + 1];
+            System.arraycopy(oyentes, 0, nuevos, 0, oyentes.length);
+            nuevos[oyentes.length] = oyente;
+            this.oyentes = nuevos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar un oyente del reloj.");
+        } finally {
+            registroMutex.release();
+        }
     }
 
     @Override
     public void run() {
+        this.hiloReloj = Thread.currentThread();
         this.simulacionActiva = true;
-        
+
+        int duracionMs = duracionCicloMs;
+        long periodo = duracionMs * 1_000_000L;
+        // Instante en que debe completarse el ciclo cicloGlobal + 1
+        long objetivo = System.nanoTime() + periodo;
+
         while (simulacionActiva) {
-            try {
-                // Suspender el hilo según la velocidad de la simulación
-                Thread.sleep(duracionCicloMs);
-                
-                // Avanzar el tiempo global
-                cicloGlobal++;
-                
-                // Notificar a la CPU para que ejecute una instrucción
-                if (cpu != null) {
-                    cpu.ejecutarCiclo();
-                }
-                
-            } catch (InterruptedException e) {
-                // Manejo adecuado de la interrupción: restaurar la bandera de interrupción y detener
-                Thread.currentThread().interrupt();
+            int ciclos = abrirLote(objetivo, periodo);
+
+            // Esperar hasta el instante absoluto del último pulso del lote (puede acortarse)
+            long ahora = esperarLote(objetivo, periodo, ciclos);
+            if (enLote) {
+                ciclos = ciclosDelLote();
+            }
+            long objetivoFinal = objetivo + (ciclos - 1) * periodo;
+            if (Thread.currentThread().isInterrupted()) {
+                // Manejo adecuado de la interrupción: la bandera queda puesta y el reloj se detiene
+                cerrarLote();
                 this.simulacionActiva = false;
                 System.err.println("El Reloj del Sistema fue interrumpido críticamente.");
+                break;
+            }
+
+            if (ahora < objetivoFinal) {
+                // Lote cortado por un cambio externo: liquidar solo los ciclos ya transcurridos
+                lotesCortados++;
+                int transcurridos = congelarLote(objetivo, periodo);
+                if (transcurridos > 0) {
+                    avanzarCiclos(transcurridos);
+                    objetivo += transcurridos * periodo;
+                } else {
+                    cerrarLote();
+                }
+                continue;
+            }
+
+            long retraso = ahora - objetivoFinal;
+            histogramaJitter.registrar(retraso);
+
+            if (retraso >= periodo * MAX_PULSOS_RECUPERACION && periodo > 0) {
+                // Atraso inabarcable (pausa del host, GC largo): descartarlo y reanclar
+                long perdidos = retraso / periodo;
+                pulsosDescartados += perdidos;
+                resincronizaciones++;
+                objetivo += perdidos * periodo;
+            } else if (retraso >= periodo && periodo > 0) {
+                pulsosRecuperados++; // Este pulso sale sin esperar para alcanzar al horario
+            }
+
+            long inicioPulso = System.nanoTime();
+            avanzarCiclos(ciclos);
+            long duracion = System.nanoTime() - inicioPulso;
+            if (duracion > periodo && periodo > 0) {
+                histogramaSobreejecucion.registrar(duracion - periodo);
+            }
+
+            // Un cambio de velocidad reancla el horario desde ahora
+            if (duracionCicloMs != duracionMs) {
+                duracionMs = duracionCicloMs;
+                periodo = duracionMs * 1_000_000L;
+                objetivo = System.nanoTime() + periodo;
+            } else {
+                objetivo += ciclos * periodo;
+            }
+        }
+    }
+
+    /**
+     * Decide cuántos ciclos cubre la próxima espera y, si son varios, publica el lote.
+     * @return Ciclos del lote (1 = pulso normal).
+     */
+    private int abrirLote(long objetivo, long periodo) {
+        if (!modoSinTicks || periodo <= 0) {
+            return 1;
+        }
+        int actual = cicloGlobal;
+        // Desde aquí, toda cota que llegue por acotarLote() se respeta en este lote
+        finLote.set(Integer.MAX_VALUE);
+        int horizonte = calcularHorizonte();
+        if (horizonte - actual <= 1) {
+            return 1;
+        }
+        baseLote = actual;
+        finLote.accumulateAndGet(horizonte, Math::min);
+        anclaLoteNanos = objetivo;
+        periodoLoteNanos = periodo;
+        secuenciaLote++;
+        enLote = true;
+        int ciclos = ciclosDelLote();
+        if (bloqueosLote.get() > 0 || ciclos <= 1) {
+            cerrarLote(); // Alguien está modificando un núcleo (o se acotó a un ciclo): pulso a pulso
+            return 1;
+        }
+        lotesEjecutados++;
+        return ciclos;
+    }
+
+    private int ciclosDelLote() {
+        return Math.max(1, finLote.get() - baseLote);
+    }
+
+    /**
+     * Ciclos del lote completados en un instante dado.
+     */
+    private static int ciclosTranscurridos(long instante, long ancla, long periodo) {
+        if (instante < ancla) {
+            return 0;
+        }
+        return (int) Math.min(MAX_CICLOS_LOTE, 1 + (instante - ancla) / periodo);
+    }
+
+    /**
+     * Baja el final del lote cortado al último ciclo transcurrido y decide cuántos
+     * ciclos liquidar. El tiempo se vuelve a medir después de congelarlo: cualquier
+     * lectura previa de getCicloGlobal() midió antes, así que no vio más ciclos que
+     * los que se liquidan, y las posteriores no pasan del final congelado.
+     * @return Ciclos a liquidar (0 si no se completó ninguno).
+     */
+    private int congelarLote(long objetivo, long periodo) {
+        if (!enLote) {
+            return 0; // Pulso normal despertado antes de tiempo (detención)
+        }
+        int base = baseLote;
+        int congelado = base + ciclosTranscurridos(System.nanoTime(), objetivo, periodo);
+        int finPrevio = finLote.getAndAccumulate(congelado, Math::min);
+        int transcurridos = ciclosTranscurridos(System.nanoTime(), objetivo, periodo);
+        return Math.max(0, Math.min(transcurridos, finPrevio - base));
+    }
+
+    /**
+     * Apaga el lote y despierta a los hilos que esperaban su liquidación.
+     */
+    private void cerrarLote() {
+        enLote = false;
+        for (Thread hilo : esperandoCierre) {
+            LockSupport.unpark(hilo);
+        }
+    }
+
+    /**
+     * Estaciona el hilo hasta el instante del último pulso del lote; el último tramo
+     * se resuelve girando para no depender de la granularidad del planificador del
+     * host. Si acotarLote() acorta el lote, el instante se recalcula; un corte de
+     * lote lo despierta antes.
+     * @param objetivo Instante absoluto (System.nanoTime()) del primer pulso.
+     * @param periodo
+     * @param ciclos Ciclos del lote al abrirlo.
+     * @return Instante real en que terminó la espera.
+     */
+    private long esperarLote(long objetivo, long periodo, int ciclos) {
+        long ahora = System.nanoTime();
+        while (simulacionActiva) {
+            if (enLote) {
+                if (bloqueosLote.get() > 0) {
+                    break;
+                }
+                ciclos = ciclosDelLote();
+            }
+            long restante = objetivo + (ciclos - 1) * periodo - ahora;
+            if (restante <= 0) {
+                break;
             }
+            if (restante > MARGEN_GIRO_NANOS) {
+                LockSupport.parkNanos(this, restante - MARGEN_GIRO_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            ahora = System.nanoTime();
         }
+        return ahora;
+    }
+
+    /**
+     * Un pulso completo sin esperar: los núcleos ejecutan el ciclo y luego se
+     * notifica a los observadores. Lo usa run() y, en tiempo virtual, el
+     * MotorEventosDiscretos (el hilo del reloj no debe estar corriendo).
+     * @return Ciclo recién completado.
+     */
+    public int avanzarCiclo() {
+        return avanzarCiclos(1);
+    }
+
+    /**
+     * Ejecuta varios ciclos consecutivos como un lote: cada núcleo avanza su proceso
+     * de una vez y los observadores reciben un único aviso con el último ciclo.
+     * Quien llama debe garantizar que nada cambia dentro del lote (ver calcularHorizonte()).
+     * @param ciclos Cantidad de ciclos (>= 1).
+     * @return Ciclo recién completado.
+     */
+    public int avanzarCiclos(int ciclos) {
+        int primero = cicloGlobal + 1;
+        int ciclo = cicloGlobal + ciclos;
+
+        // Notificar a cada núcleo para que ejecute sus instrucciones
+        for (Procesador cpu : procesadores) {
+            cpu.ejecutarCiclos(primero, ciclos);
+        }
+        // Avanzar el tiempo global y cerrar el lote antes de los oyentes (pueden despachar)
+        cicloGlobal = ciclo;
+        cerrarLote();
+
+        // Notificar a los observadores (temporizadores, monitores)
+        for (OyenteReloj oyente : oyentes) {
+            oyente.alPulsoReloj(ciclo);
+        }
+        return ciclo;
+    }
+
+    /**
+     * Próximo ciclo en que algo puede cambiar sin intervención externa, según los
+     * núcleos y los oyentes. Nunca es menor a cicloGlobal + 1.
+     * @return Ciclo absoluto, acotado a MAX_CICLOS_LOTE ciclos adelante.
+     */
+    public int calcularHorizonte() {
+        int actual = cicloGlobal;
+        long horizonte = (long) actual + MAX_CICLOS_LOTE;
+        for (Procesador cpu : procesadores) {
+            horizonte = Math.min(horizonte, cpu.proximoCicloDeInteres(actual));
+        }
+        for (OyenteReloj oyente : oyentes) {
+            horizonte = Math.min(horizonte, oyente.proximoCicloDeInteres(actual));
+        }
+        return (int) Math.max(actual + 1L, horizonte);
+    }
+
+    /**
+     * Liquida el lote en curso (los ciclos ya transcurridos) y evita que se abra
+     * otro hasta reanudarLotes(). Lo usa Procesador antes de cambiar su proceso.
+     * El hilo llamador se estaciona (sin girar) hasta que el reloj lo despierta al
+     * cerrar el lote. Desde el propio hilo del reloj no espera (el lote ya está cerrado).
+     */
+    public void cortarLote() {
+        bloqueosLote.incrementAndGet();
+        if (!enLote || Thread.currentThread() == hiloReloj) {
+            return;
+        }
+        Thread yo = Thread.currentThread();
+        agregarEsperando(yo);
+        try {
+            // Registrado antes de releer enLote: si el reloj lo cierra después, nos despierta
+            Thread hilo = hiloReloj;
+            if (hilo != null && enLote) {
+                LockSupport.unpark(hilo);
+            }
+            while (enLote && simulacionActiva) {
+                LockSupport.park(this);
+            }
+        } finally {
+            quitarEsperando(yo);
+        }
+    }
+
+    /**
+     * Cierra un cortarLote(): con todos los cortes cerrados se vuelven a abrir lotes.
+     */
+    public void reanudarLotes() {
+        bloqueosLote.decrementAndGet();
+    }
+
+    /**
+     * Aviso de un oyente que acaba de programar algo para un ciclo dado: si el lote
+     * en curso lo saltaría, se corta para que ese ciclo vuelva a pulsarse.
+     * @param ciclo Ciclo en que el oyente necesita ser notificado.
+     */
+    public void acotarLote(int ciclo) {
+        while (true) {
+            int fin = finLote.get();
+            int cota = ciclo;
+            if (enLote) {
+                // Un ciclo ya transcurrido no puede salir del lote: getCicloGlobal() pudo mostrarlo
+                long lote = secuenciaLote;
+                int transcurridos = baseLote + ciclosTranscurridos(System.nanoTime(), anclaLoteNanos, periodoLoteNanos);
+                if (secuenciaLote != lote) {
+                    continue; // Se abrió otro lote mientras se medía
+                }
+                cota = Math.max(ciclo, transcurridos);
+            }
+            if (cota >= fin) {
+                return;
+            }
+            if (finLote.compareAndSet(fin, cota)) {
+                // El reloj recalcula su espera con el nuevo final
+                Thread hilo = hiloReloj;
+                if (enLote && hilo != null && hilo != Thread.currentThread()) {
+                    LockSupport.unpark(hilo);
+                }
+                return;
+            }
+        }
+    }
+
+    private void agregarEsperando(Thread hilo) {
+        try {
+            registroMutex.acquire();
+            Thread[] nuevos = new Thread[esperandoCierre.length + 1];
+            System.arraycopy(esperandoCierre, 0, nuevos, 0, esperandoCierre.length);
+            nuevos[esperandoCierre.length] = hilo;
+            this.esperandoCierre = nuevos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al esperar el cierre de un lote del reloj.");
+        } finally {
+            registroMutex.release();
+        }
+    }
+
+    private void quitarEsperando(Thread hilo) {
+        try {
+            registroMutex.acquire();
+            Thread[] actuales = esperandoCierre;
+            for (int i = 0; i < actuales.length; i++) {
+                if (actuales[i] == hilo) {
+                    Thread[] nuevos = new Thread[actuales.length - 1];
+                    System.arraycopy(actuales, 0, nuevos, 0, i);
+                    System.arraycopy(actuales, i + 1, nuevos, i, nuevos.length - i);
+                    this.esperandoCierre = nuevos;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al esperar el cierre de un lote del reloj.");
+        } finally {
+            registroMutex.release();
+        }
+    }
+
+    /**
+     * Salta directo hasta un ciclo futuro con un único aviso a los observadores.
+     * Solo es válido con todos los núcleos ociosos: los ciclos saltados se
+     * contabilizan como ociosos y ningún proceso avanza.
+     * @param ciclo Ciclo de destino (si no es futuro, no hace nada).
+     */
+    public void saltarA(int ciclo) {
+        int saltados = ciclo - cicloGlobal;
+        if (saltados <= 0) {
+            return;
+        }
+        for (Procesador cpu : procesadores) {
+            cpu.registrarCiclosOciosos(saltados);
+        }
+        cicloGlobal = ciclo;
+        for (OyenteReloj oyente : oyentes) {
+            oyente.alPulsoReloj(ciclo);
+        }
+    }
+
+    /**
+     * @return Retraso de cada despertar respecto del instante programado.
+     */
+    public HistogramaLatencia getHistogramaJitter() {
+        return histogramaJitter;
+    }
+
+    /**
+     * @return Exceso sobre el periodo de los pulsos cuyo trabajo no cupo en él.
+     */
+    public HistogramaLatencia getHistogramaSobreejecucion() {
+        return histogramaSobreejecucion;
+    }
+
+    public long getPulsosRecuperados() {
+        return pulsosRecuperados;
+    }
+
+    public long getPulsosDescartados() {
+        return pulsosDescartados;
+    }
+
+    public long getResincronizaciones() {
+        return resincronizaciones;
     }
 
     public void setDuracionCicloMs(int duracion) {
         this.duracionCicloMs = duracion;
     }
 
+    /**
+     * Activa o desactiva el modo sin ticks (lotes hasta el próximo ciclo de interés).
+     * @param activo
+     */
+    public void setModoSinTicks(boolean activo) {
+        this.modoSinTicks = activo;
+    }
+
+    public boolean isModoSinTicks() {
+        return modoSinTicks;
+    }
+
+    public long getLotesEjecutados() {
+        return lotesEjecutados;
+    }
+
+    public long getLotesCortados() {
+        return lotesCortados;
+    }
+
+    /**
+     * Último ciclo completado. Durante un lote se deriva del tiempo real
+     * transcurrido, por lo que es exacto aunque los núcleos se actualicen al final.
+     * @return
+     */
     public int getCicloGlobal() {
+        long lote = secuenciaLote;
+        if (enLote) {
+            int base = baseLote;
+            // El tiempo se mide antes de leer el final: un corte posterior lo congela a partir de aquí
+            int transcurridos = ciclosTranscurridos(System.nanoTime(), anclaLoteNanos, periodoLoteNanos);
+            int fin = finLote.get();
+            if (enLote && secuenciaLote == lote) {
+                return Math.min(fin, base + transcurridos);
+            }
+        }
         return cicloGlobal;
     }
 
     public void detenerReloj() {
         this.simulacionActiva = false;
+        Thread hilo = hiloReloj;
+        if (hilo != null) {
+            LockSupport.unpark(hilo); // No esperar el resto del periodo para salir
+        }
     }
 }
\ No newline at end of file
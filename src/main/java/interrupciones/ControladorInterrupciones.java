@@ -0,0 +1,663 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package interrupciones;
+
+import hardware.OyenteReloj;
+import hardware.Procesador;
+import hardware.RelojSistema;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Controlador de interrupciones con prioridades (estilo PIC/NVIC) para un núcleo.
+ * Cada línea registrada tiene un nivel (1 a NIVEL_MAXIMO, mayor = más urgente) y
+ * un costo en ciclos dividido en dos mitades:
+ * - Mitad superior: corre apenas se acepta, secuestrando la CPU en su nivel.
+ *   Una línea de nivel más alto la interrumpe (anidamiento); una de nivel igual
+ *   o menor espera a que termine.
+ * - Mitad inferior: trabajo diferido que se encola al terminar la superior y
+ *   corre en el nivel 0, solo cuando no hay mitades superiores activas; cualquier
+ *   mitad superior la interrumpe.
+ *
+ * Todo se mide en ciclos del reloj: solicitar() solo anota la petición (desde
+ * cualquier hilo, sin bloquearse) y el hilo del reloj la atiende en el próximo
+ * pulso. Nunca se duerme ni se bloquea a la CPU: el proceso en curso queda
+ * congelado mientras dure el secuestro y el reloj, el planificador y la GUI
+ * siguen funcionando.
+ *
+ * Control de tormentas:
+ * - Coalescencia: las solicitudes pendientes de una misma línea se atienden con
+ *   una sola rutina (y una sola mitad inferior en espera por línea), contando
+ *   cuántas se fusionaron.
+ * - Limitador por línea (cubeta de fichas): una ráfaga configurable y una ficha
+ *   nueva cada tantos ciclos; lo que llega sin ficha se descarta y se cuenta.
+ * - Presupuesto de CPU: cada rutina reserva su costo en la ventana de ciclos en
+ *   que empieza y solo empieza si cabe; lo pendiente espera a la ventana
+ *   siguiente (sigue fusionándose). Una rutina más cara que todo el presupuesto
+ *   solo puede empezar en una ventana vacía.
+ */
+public class ControladorInterrupciones implements OyenteReloj {
+
+    /**
+     * Nivel en que corren las mitades inferiores (debajo de toda mitad superior).
+     */
+    public static final int NIVEL_MITAD_INFERIOR = 0;
+    public static final int NIVEL_MAXIMO = Procesador.NIVELES_SECUESTRO - 1;
+    public static final int MAX_LINEAS = 64;
+
+    /**
+     * Descriptor y métricas de una línea de interrupción.
+     */
+    public static final class Linea {
+
+        private final int numero;
+        private final String nombre;
+        private final int nivel;
+        private final int ciclosMitadSuperior;
+        private final int ciclosMitadInferior;
+
+        // Limitador: fichas máximas (0 = sin límite) y ciclos por ficha nueva
+        private volatile int rafaga;
+        private volatile int ciclosPorFicha;
+
+        // Métricas (las descartadas las escribe cualquier hilo; el resto, el del reloj)
+        private volatile long atendidas;
+        private volatile long coalescidas;
+        private final AtomicLong descartadas;
+        private volatile long latenciaTotal;
+        private volatile int latenciaMaxima;
+
+        private Linea(int numero, String nombre, int nivel, int ciclosMitadSuperior, int ciclosMitadInferior) {
+            this.numero = numero;
+            this.nombre = nombre;
+            this.nivel = nivel;
+            this.ciclosMitadSuperior = ciclosMitadSuperior;
+            this.ciclosMitadInferior = ciclosMitadInferior;
+            this.rafaga = 0;
+            this.ciclosPorFicha = 1;
+            this.atendidas = 0;
+            this.coalescidas = 0;
+            this.descartadas = new AtomicLong(0);
+            this.latenciaTotal = 0;
+            this.latenciaMaxima = 0;
+        }
+
+        public int getNumero() {
+            return numero;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public int getNivel() {
+            return nivel;
+        }
+
+        public int getCiclosMitadSuperior() {
+            return ciclosMitadSuperior;
+        }
+
+        public int getCiclosMitadInferior() {
+            return ciclosMitadInferior;
+        }
+
+        /**
+         * @return Rutinas de mitad superior ejecutadas.
+         */
+        public long getAtendidas() {
+            return atendidas;
+        }
+
+        /**
+         * @return Solicitudes que se fusionaron con otra en lugar de tener rutina propia.
+         */
+        public long getCoalescidas() {
+            return coalescidas;
+        }
+
+        /**
+         * @return Solicitudes rechazadas por el limitador.
+         */
+        public long getDescartadas() {
+            return descartadas.get();
+        }
+
+        public int getRafaga() {
+            return rafaga;
+        }
+
+        public int getCiclosPorFicha() {
+            return ciclosPorFicha;
+        }
+
+        /**
+         * @return Ciclos promedio entre la solicitud y el inicio de la mitad superior.
+         */
+        public double getLatenciaPromedio() {
+            long n = atendidas;
+            return (n == 0) ? 0.0 : (double) latenciaTotal / n;
+        }
+
+        public int getLatenciaMaxima() {
+            return latenciaMaxima;
+        }
+    }
+
+    private final Procesador cpu;
+    private final RelojSistema reloj;
+
+    // Líneas registradas (copia en escritura); el número de línea es su índice
+    private volatile Linea[] lineas;
+    private final Semaphore registroMutex;
+
+    // Solicitudes sin atender por línea y ciclo de la más antigua (las escribe cualquier hilo)
+    private final AtomicIntegerArray pendientes;
+    private final AtomicIntegerArray cicloPrimeraPendiente;
+    private final AtomicInteger totalPendientes;
+
+    // Cubeta de fichas por línea: ciclo de la última recarga (32 bits altos) y fichas (bajos)
+    private final AtomicLongArray cubetas;
+
+    // Pila de rutinas en curso (solo el hilo del reloj): la cima es la que avanza
+    private final int[] lineaMarco;
+    private final int[] nivelMarco;
+    private final int[] restanteMarco;
+    private final boolean[] marcoInferior;
+    private int profundidad;
+
+    // Mitades inferiores en espera (anillo de números de línea, a lo sumo una por línea)
+    private int[] inferiores;
+    private int inicioInferiores;
+    private int cantidadInferiores;
+    private final boolean[] inferiorEnEspera;
+
+    // Presupuesto de CPU por ventana (0 ciclos = sin presupuesto)
+    private volatile int ciclosPresupuesto;
+    private volatile int ventanaCiclos;
+    private int inicioVentana;
+    private int reservadosVentana;
+    private boolean esperandoVentana;
+
+    private int ultimoCiclo;
+    private Runnable alRetornar;
+
+    // Métricas (solo las escribe el hilo del reloj)
+    private volatile long ciclosMitadSuperior;
+    private volatile long ciclosMitadInferior;
+    private volatile int profundidadMaxima;
+    private volatile long ventanasAgotadas;
+
+    /**
+     * @param cpu Núcleo cuyas interrupciones controla.
+     * @param reloj Reloj del sistema (se registra como oyente).
+     */
+    public ControladorInterrupciones(Procesador cpu, RelojSistema reloj) {
+        this.cpu = cpu;
+        this.reloj = reloj;
+        this.lineas = new Linea[0];
+        this.registroMutex = new Semaphore(1);
+        this.pendientes = new AtomicIntegerArray(MAX_LINEAS);
+        this.cicloPrimeraPendiente = new AtomicIntegerArray(MAX_LINEAS);
+        this.totalPendientes = new AtomicInteger(0);
+        this.cubetas = new AtomicLongArray(MAX_LINEAS);
+        // A lo sumo una rutina por nivel más una mitad inferior
+        this.lineaMarco = new int[Procesador.NIVELES_SECUESTRO];
+        this.nivelMarco = new int[Procesador.NIVELES_SECUESTRO];
+        this.restanteMarco = new int[Procesador.NIVELES_SECUESTRO];
+        this.marcoInferior = new boolean[Procesador.NIVELES_SECUESTRO];
+        this.profundidad = 0;
+        this.inferiores = new int[16];
+        this.inicioInferiores = 0;
+        this.cantidadInferiores = 0;
+        this.inferiorEnEspera = new boolean[MAX_LINEAS];
+        this.ciclosPresupuesto = 0;
+        this.ventanaCiclos = 1;
+        this.inicioVentana = reloj.getCicloGlobal();
+        this.reservadosVentana = 0;
+        this.esperandoVentana = false;
+        this.ultimoCiclo = reloj.getCicloGlobal();
+        this.ciclosMitadSuperior = 0;
+        this.ciclosMitadInferior = 0;
+        this.profundidadMaxima = 0;
+        this.ventanasAgotadas = 0;
+
+        reloj.agregarOyente(this);
+    }
+
+    /**
+     * Acción a ejecutar cuando la CPU queda libre de rutinas (ej. despertar al planificador).
+     * @param alRetornar
+     */
+    public void setAlRetornar(Runnable alRetornar) {
+        this.alRetornar = alRetornar;
+    }
+
+    /**
+     * Registra una línea de interrupción.
+     * @param nombre Descripción de la fuente (ej. "Radio", "Micro-Meteorito").
+     * @param nivel Prioridad entre 1 y NIVEL_MAXIMO.
+     * @param ciclosMitadSuperior Costo de la parte urgente (mínimo 1).
+     * @param ciclosMitadInferior Costo del trabajo diferido (0 = no tiene).
+     * @return Número de la línea, o -1 si ya hay MAX_LINEAS.
+     */
+    public int registrarLinea(String nombre, int nivel, int ciclosMitadSuperior, int ciclosMitadInferior) {
+        int numero = -1;
+        try {
+            registroMutex.acquire();
+            numero = agregarLinea(nombre, nivel, ciclosMitadSuperior, ciclosMitadInferior, 0, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar la línea " + nombre);
+        } finally {
+            registroMutex.release();
+        }
+        return numero;
+    }
+
+    /**
+     * Devuelve la línea con ese nombre o, si no existe, la registra con el límite
+     * de tasa indicado. Búsqueda y registro ocurren bajo el mismo semáforo, así que
+     * dos hilos que levantan la misma fuente a la vez obtienen la misma línea, y la
+     * línea nueva se publica ya limitada.
+     * @param nombre
+     * @param nivel
+     * @param ciclosMitadSuperior
+     * @param ciclosMitadInferior
+     * @param rafaga Como en configurarLimite() (solo se aplica si la línea es nueva).
+     * @param ciclosPorFicha
+     * @return Número de la línea, o -1 si no existía y ya hay MAX_LINEAS.
+     */
+    public int buscarORegistrarLinea(String nombre, int nivel, int ciclosMitadSuperior, int ciclosMitadInferior,
+            int rafaga, int ciclosPorFicha) {
+        int numero = -1;
+        try {
+            registroMutex.acquire();
+            numero = buscarLinea(nombre);
+            if (numero < 0) {
+                numero = agregarLinea(nombre, nivel, ciclosMitadSuperior, ciclosMitadInferior, rafaga, ciclosPorFicha);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar la línea " + nombre);
+        } finally {
+            registroMutex.release();
+        }
+        return numero;
+    }
+
+    /**
+     * Debe llamarse con registroMutex adquirido. El límite queda fijado antes de
+     * publicar la línea.
+     */
+    private int agregarLinea(String nombre, int nivel, int ciclosMitadSuperior, int ciclosMitadInferior,
+            int rafaga, int ciclosPorFicha) {
+        Linea[] actuales = lineas;
+        if (actuales.length >= MAX_LINEAS) {
+            return -1;
+        }
+        int numero = actuales.length;
+        Linea linea = new Linea(numero, nombre,
+                Math.max(1, Math.min(NIVEL_MAXIMO, nivel)),
+                Math.max(1, ciclosMitadSuperior), Math.max(0, ciclosMitadInferior));
+        linea.ciclosPorFicha = Math.max(1, ciclosPorFicha);
+        linea.rafaga = Math.max(0, rafaga);
+        cubetas.set(numero, empaquetar(reloj.getCicloGlobal(), linea.rafaga));
+        Linea[] nuevas = new Linea[numero + 1];
+        System.arraycopy(actuales, 0, nuevas, 0, numero);
+        nuevas[numero] = linea;
+        this.lineas = nuevas;
+        return numero;
+    }
+
+    /**
+     * Limita la tasa de una línea con una cubeta de fichas (empieza llena).
+     * @param linea
+     * @param rafaga Solicitudes que pueden llegar seguidas (0 = sin límite).
+     * @param ciclosPorFicha Ciclos para recuperar una ficha (tasa sostenida).
+     */
+    public void configurarLimite(int linea, int rafaga, int ciclosPorFicha) {
+        Linea[] actuales = lineas;
+        if (linea < 0 || linea >= actuales.length) {
+            return;
+        }
+        actuales[linea].ciclosPorFicha = Math.max(1, ciclosPorFicha);
+        actuales[linea].rafaga = Math.max(0, rafaga);
+        cubetas.set(linea, empaquetar(reloj.getCicloGlobal(), Math.max(0, rafaga)));
+    }
+
+    /**
+     * Tope de ciclos de CPU que las rutinas (ambas mitades) pueden reservar por ventana.
+     * @param ciclosPermitidos Ciclos por ventana (0 = sin presupuesto).
+     * @param ventanaCiclos Largo de la ventana.
+     */
+    public void setPresupuesto(int ciclosPermitidos, int ventanaCiclos) {
+        this.ventanaCiclos = Math.max(1, ventanaCiclos);
+        this.ciclosPresupuesto = Math.max(0, ciclosPermitidos);
+    }
+
+    /**
+     * @param nombre
+     * @return Número de la línea con ese nombre, o -1 si no está registrada.
+     */
+    public int buscarLinea(String nombre) {
+        for (Linea linea : lineas) {
+            if (linea.getNombre().equals(nombre)) {
+                return linea.getNumero();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Levanta una línea de interrupción. Se atiende en el próximo pulso si su nivel
+     * supera al de la rutina en curso; si no, queda pendiente (y se fusiona con
+     * las siguientes de la misma línea).
+     * No se bloquea: puede llamarse desde cualquier hilo.
+     * @param linea Número devuelto por registrarLinea().
+     * @return false si la línea no existe o el limitador la descartó.
+     */
+    public boolean solicitar(int linea) {
+        Linea[] actuales = lineas;
+        if (linea < 0 || linea >= actuales.length) {
+            return false;
+        }
+        if (!tomarFicha(actuales[linea])) {
+            actuales[linea].descartadas.incrementAndGet();
+            return false;
+        }
+        if (pendientes.getAndIncrement(linea) == 0) {
+            cicloPrimeraPendiente.set(linea, reloj.getCicloGlobal());
+        }
+        totalPendientes.incrementAndGet();
+        // Un lote sin ticks en curso no debe saltarse la solicitud
+        reloj.acotarLote(reloj.getCicloGlobal() + 1);
+        return true;
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        int transcurridos = cicloGlobal - ultimoCiclo;
+        ultimoCiclo = cicloGlobal;
+        boolean habiaRutinas = profundidad > 0;
+
+        consumir(transcurridos);
+        renovarVentana(cicloGlobal);
+        aceptarPendientes(cicloGlobal);
+        if (profundidad == 0 && cantidadInferiores > 0) {
+            iniciarMitadInferior();
+        }
+
+        if (habiaRutinas && profundidad == 0 && alRetornar != null) {
+            alRetornar.run();
+        }
+    }
+
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        int siguiente = (profundidad > 0) ? cicloActual + restanteMarco[profundidad - 1] : Integer.MAX_VALUE;
+        if (totalPendientes.get() > 0 || cantidadInferiores > 0) {
+            // Sin presupuesto, lo pendiente espera a que abra la ventana siguiente
+            int espera = esperandoVentana ? inicioVentana + ventanaCiclos : cicloActual + 1;
+            siguiente = Math.min(siguiente, Math.max(cicloActual + 1, espera));
+        }
+        return siguiente;
+    }
+
+    public Linea[] getLineas() {
+        return lineas;
+    }
+
+    public long getCiclosMitadSuperior() {
+        return ciclosMitadSuperior;
+    }
+
+    public long getCiclosMitadInferior() {
+        return ciclosMitadInferior;
+    }
+
+    public int getProfundidadMaxima() {
+        return profundidadMaxima;
+    }
+
+    /**
+     * @return Solicitudes levantadas que todavía no empezaron su mitad superior.
+     */
+    public int getPendientes() {
+        return totalPendientes.get();
+    }
+
+    public int getMitadesInferioresEnEspera() {
+        return cantidadInferiores;
+    }
+
+    public long getCoalescidas() {
+        long total = 0;
+        for (Linea linea : lineas) {
+            total += linea.getCoalescidas();
+        }
+        return total;
+    }
+
+    public long getDescartadas() {
+        long total = 0;
+        for (Linea linea : lineas) {
+            total += linea.getDescartadas();
+        }
+        return total;
+    }
+
+    /**
+     * @return Ventanas en las que el presupuesto se agotó con trabajo esperando.
+     */
+    public long getVentanasAgotadas() {
+        return ventanasAgotadas;
+    }
+
+    /**
+     * @return Una línea con los ciclos consumidos por cada mitad, la fusión y los descartes.
+     */
+    public String resumen() {
+        return String.format("Interrupciones: superior=%d ciclos, inferior=%d ciclos, pendientes=%d, diferidas=%d, "
+                + "coalescidas=%d, descartadas=%d, ventanas agotadas=%d, anidamiento max=%d",
+                ciclosMitadSuperior, ciclosMitadInferior, totalPendientes.get(), cantidadInferiores,
+                getCoalescidas(), getDescartadas(), ventanasAgotadas, profundidadMaxima);
+    }
+
+    /**
+     * Atribuye los ciclos transcurridos a la rutina en la cima; al terminar una, el
+     * resto sigue con la que estaba debajo (su secuestro seguía congelando la CPU).
+     */
+    private void consumir(int transcurridos) {
+        while (transcurridos > 0 && profundidad > 0) {
+            int cima = profundidad - 1;
+            int usados = Math.min(transcurridos, restanteMarco[cima]);
+            restanteMarco[cima] -= usados;
+            transcurridos -= usados;
+            if (marcoInferior[cima]) {
+                ciclosMitadInferior += usados;
+            } else {
+                ciclosMitadSuperior += usados;
+            }
+            if (restanteMarco[cima] == 0) {
+                terminarRutina(cima);
+            }
+        }
+    }
+
+    private void terminarRutina(int cima) {
+        profundidad--;
+        cpu.liberarSecuestro(nivelMarco[cima]);
+        if (!marcoInferior[cima]) {
+            Linea linea = lineas[lineaMarco[cima]];
+            if (linea.getCiclosMitadInferior() > 0) {
+                encolarMitadInferior(linea.getNumero());
+            }
+        }
+    }
+
+    /**
+     * Acepta, de mayor a menor nivel, las solicitudes que superan a la rutina en curso.
+     * Todas las pendientes de la línea elegida se atienden con una sola rutina.
+     */
+    private void aceptarPendientes(int cicloGlobal) {
+        if (totalPendientes.get() == 0) {
+            return;
+        }
+        Linea[] actuales = lineas;
+        while (true) {
+            int nivelActual = (profundidad > 0) ? nivelMarco[profundidad - 1] : -1;
+            Linea elegida = null;
+            for (Linea linea : actuales) {
+                if (linea.getNivel() > nivelActual && pendientes.get(linea.getNumero()) > 0
+                        && (elegida == null || linea.getNivel() > elegida.getNivel())) {
+                    elegida = linea;
+                }
+            }
+            if (elegida == null) {
+                return;
+            }
+            if (!cabeEnPresupuesto(elegida.getCiclosMitadSuperior())) {
+                agotarVentana();
+                return;
+            }
+            // Otro componente puede tener secuestrado un nivel más alto: se reintenta el próximo pulso
+            if (!cpu.secuestrar(elegida.getNivel())) {
+                return;
+            }
+            int numero = elegida.getNumero();
+            int latencia = Math.max(0, cicloGlobal - cicloPrimeraPendiente.get(numero));
+            int fusionadas = pendientes.getAndSet(numero, 0);
+            totalPendientes.addAndGet(-fusionadas);
+            elegida.coalescidas += Math.max(0, fusionadas - 1);
+            elegida.atendidas++;
+            elegida.latenciaTotal += latencia;
+            if (latencia > elegida.latenciaMaxima) {
+                elegida.latenciaMaxima = latencia;
+            }
+            apilar(numero, elegida.getNivel(), elegida.getCiclosMitadSuperior(), false);
+        }
+    }
+
+    private void iniciarMitadInferior() {
+        int numero = inferiores[inicioInferiores];
+        if (!cabeEnPresupuesto(lineas[numero].getCiclosMitadInferior())) {
+            agotarVentana();
+            return;
+        }
+        if (!cpu.secuestrar(NIVEL_MITAD_INFERIOR)) {
+            return;
+        }
+        inicioInferiores = (inicioInferiores + 1) % inferiores.length;
+        cantidadInferiores--;
+        inferiorEnEspera[numero] = false;
+        apilar(numero, NIVEL_MITAD_INFERIOR, lineas[numero].getCiclosMitadInferior(), true);
+    }
+
+    private void apilar(int linea, int nivel, int ciclos, boolean inferior) {
+        lineaMarco[profundidad] = linea;
+        nivelMarco[profundidad] = nivel;
+        restanteMarco[profundidad] = ciclos;
+        marcoInferior[profundidad] = inferior;
+        profundidad++;
+        reservadosVentana += ciclos;
+        if (profundidad > profundidadMaxima) {
+            profundidadMaxima = profundidad;
+        }
+    }
+
+    private void encolarMitadInferior(int linea) {
+        if (inferiorEnEspera[linea]) {
+            lineas[linea].coalescidas++; // Su trabajo diferido se suma al que ya esperaba
+            return;
+        }
+        inferiorEnEspera[linea] = true;
+        if (cantidadInferiores == inferiores.length) {
+            int[] mayor = new int[inferiores.length * 2];
+            for (int i = 0; i < cantidadInferiores; i++) {
+                mayor[i] = inferiores[(inicioInferiores + i) % inferiores.length];
+            }
+            inferiores = mayor;
+            inicioInferiores = 0;
+        }
+        inferiores[(inicioInferiores + cantidadInferiores) % inferiores.length] = linea;
+        cantidadInferiores++;
+    }
+
+    /**
+     * @param ciclos Costo de la rutina que quiere empezar.
+     * @return true si no hay presupuesto configurado o si la rutina cabe en lo que
+     * queda de la ventana (o la ventana está vacía).
+     */
+    private boolean cabeEnPresupuesto(int ciclos) {
+        int permitidos = ciclosPresupuesto;
+        return permitidos <= 0 || reservadosVentana == 0 || reservadosVentana + ciclos <= permitidos;
+    }
+
+    /**
+     * Abre una ventana nueva de presupuesto si la actual ya terminó.
+     */
+    private void renovarVentana(int cicloGlobal) {
+        int ventana = ventanaCiclos;
+        int transcurrido = cicloGlobal - inicioVentana;
+        if (transcurrido >= ventana) {
+            inicioVentana = cicloGlobal - (transcurrido % ventana);
+            reservadosVentana = 0;
+            esperandoVentana = false;
+        }
+    }
+
+    /**
+     * Lo pendiente ya no cabe: se deja de mirar hasta que abra la ventana siguiente.
+     */
+    private void agotarVentana() {
+        if (!esperandoVentana) {
+            esperandoVentana = true;
+            ventanasAgotadas++;
+        }
+    }
+
+    /**
+     * Toma una ficha de la cubeta de la línea, recargando las ganadas desde la última
+     * vez. Sin bloqueos: un CAS sobre el estado empaquetado.
+     */
+    private boolean tomarFicha(Linea linea) {
+        int rafaga = linea.rafaga;
+        if (rafaga <= 0) {
+            return true;
+        }
+        int periodo = linea.ciclosPorFicha;
+        int numero = linea.getNumero();
+        while (true) {
+            long estado = cubetas.get(numero);
+            int recarga = (int) (estado >>> 32);
+            int fichas = (int) estado;
+            int ahora = reloj.getCicloGlobal();
+            int ganadas = (ahora > recarga) ? (ahora - recarga) / periodo : 0;
+            if (ganadas > 0) {
+                if (ganadas >= rafaga - fichas) {
+                    fichas = rafaga;
+                    recarga = ahora;
+                } else {
+                    fichas += ganadas;
+                    recarga += ganadas * periodo;
+                }
+            }
+            if (fichas == 0) {
+                return false;
+            }
+            if (cubetas.compareAndSet(numero, estado, empaquetar(recarga, fichas - 1))) {
+                return true;
+            }
+        }
+    }
+
+    private static long empaquetar(int cicloRecarga, int fichas) {
+        return ((long) cicloRecarga << 32) | (fichas & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,386 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package interrupciones;
+
+import estructuras.RuedaTemporizadores;
+import estructuras.Temporizador;
+import hardware.DispositivoIO;
+import hardware.OyenteExcepcionIO;
+import hardware.OyenteReloj;
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import planificacion.Planificador;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Subsistema de Entrada/Salida gobernado por el reloj de la simulación.
+ * Cada núcleo conectado atrapa a su proceso al alcanzar el punto de E/S
+ * (ciclosParaExcepcionIO); en el mismo pulso su solicitud llega al DispositivoIO
+ * que declara su PCB (o al genérico, sin contención, que tarda
+ * ciclosParaSatisfacerIO ciclos) y el proceso se entrega al planificador de su
+ * núcleo, que lo pasa a Bloqueados y avisa a la política en su propio hilo.
+ * Si el dispositivo tiene un canal libre, el temporizador de E/S se programa en
+ * una única RuedaTemporizadores para el ciclo en que termina; si no, espera en
+ * la cola del dispositivo hasta que otra solicitud lo libere.
+ *
+ * Cada solicitud recuerda el dispositivo que la atiende y termina en él, aunque
+ * entretanto se haya registrado otro con el mismo nombre.
+ *
+ * Las solicitudes que terminan se depositan en la bandeja sin bloqueos del
+ * GestorMemoria y el planificador las devuelve a Listos en lote. En el hilo del
+ * reloj solo quedan los temporizadores y los dispositivos: nunca toma el
+ * semáforo del gestor ni el del planificador.
+ *
+ * No hay un hilo por solicitud: el costo por pulso es O(1) más las solicitudes
+ * que empiezan o terminan, sin importar cuántas estén en curso, y la duración
+ * de la E/S se mide en ciclos del reloj (sigue su velocidad).
+ */
+public class GestorEntradaSalida implements OyenteReloj, OyenteExcepcionIO, RuedaTemporizadores.OyenteExpiracion {
+
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    /**
+     * Nombre del dispositivo que atiende a los PCB que no declaran uno (o uno desconocido).
+     */
+    public static final String DISPOSITIVO_GENERICO = "GENERICO";
+
+    private final GestorMemoria gestorMemoria;
+    private final RelojSistema reloj;
+    private final RuedaTemporizadores rueda;
+
+    // Núcleos conectados y el planificador de cada uno (copia en escritura)
+    private volatile Procesador[] nucleos;
+    private volatile Planificador[] planificadores;
+    private final Semaphore registroMutex;
+
+    // Dispositivos registrados (copia en escritura); el genérico es siempre el primero
+    private volatile DispositivoIO[] dispositivos;
+    // Dispositivos con nombre repetido, a instalar por el hilo del reloj en el próximo pulso
+    private volatile DispositivoIO[] reemplazosPendientes;
+    // Reemplazados que aún atienden su cola (copia al escribir; solo los escribe el hilo del reloj)
+    private volatile DispositivoIO[] retirados;
+
+    // Trampas del pulso en curso: las registra el Procesador y se atienden en alPulsoReloj
+    // (ambos corren en el hilo del reloj, así que no necesitan semáforo)
+    private ProcessControlBlock[] atrapados;
+    private Procesador[] nucleosAtrapados;
+    private int[] ciclosAtrapados;
+    private int cantidadAtrapados;
+
+    // Métricas (solo las escribe el hilo del reloj)
+    private volatile long solicitudesIniciadas;
+    private volatile long solicitudesCompletadas;
+
+    /**
+     * @param gestor Gestor de memoria (dueño de las colas Bloqueados y Listos).
+     * @param reloj Reloj del sistema (se registra como oyente).
+     */
+    public GestorEntradaSalida(GestorMemoria gestor, RelojSistema reloj) {
+        this.gestorMemoria = gestor;
+        this.reloj = reloj;
+        this.rueda = new RuedaTemporizadores(reloj.getCicloGlobal(), this);
+        this.nucleos = new Procesador[0];
+        this.planificadores = new Planificador[0];
+        this.registroMutex = new Semaphore(1);
+        this.dispositivos = new DispositivoIO[] {
+            new DispositivoIO(DISPOSITIVO_GENERICO, DispositivoIO.Disciplina.FIFO, DispositivoIO.SIN_LIMITE, 0, 1)
+        };
+        this.reemplazosPendientes = new DispositivoIO[0];
+        this.retirados = new DispositivoIO[0];
+        this.atrapados = new ProcessControlBlock[CAPACIDAD_INICIAL];
+        this.nucleosAtrapados = new Procesador[CAPACIDAD_INICIAL];
+        this.ciclosAtrapados = new int[CAPACIDAD_INICIAL];
+        this.cantidadAtrapados = 0;
+        this.solicitudesIniciadas = 0;
+        this.solicitudesCompletadas = 0;
+
+        reloj.agregarOyente(this);
+    }
+
+    /**
+     * Conecta un núcleo: sus solicitudes de E/S se atrapan y se avisan a su planificador.
+     * @param cpu
+     * @param planificador Planificador que gobierna ese núcleo.
+     */
+    public void agregarNucleo(Procesador cpu, Planificador planificador) {
+        try {
+            registroMutex.acquire();
+            int n = nucleos.length;
+            Procesador[] nuevosNucleos = new Procesador[n + 1];
+            Planificador[] nuevosPlanificadores = new Planificador[n + 1];
+            System.arraycopy(nucleos, 0, nuevosNucleos, 0, n);
+            System.arraycopy(planificadores, 0, nuevosPlanificadores, 0, n);
+            nuevosNucleos[n] = cpu;
+            nuevosPlanificadores[n] = planificador;
+            this.planificadores = nuevosPlanificadores;
+            this.nucleos = nuevosNucleos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al conectar un núcleo al subsistema de E/S.");
+            return;
+        } finally {
+            registroMutex.release();
+        }
+        cpu.setOyenteExcepcionIO(this);
+    }
+
+    /**
+     * Registra un dispositivo; los PCB lo eligen por nombre con setDispositivoIO().
+     * Un nombre nuevo queda disponible de inmediato. Un nombre repetido reemplaza al
+     * anterior en el próximo pulso, en el hilo del reloj; el anterior termina las
+     * solicitudes que ya tenía en servicio o en espera.
+     * @param dispositivo
+     */
+    public void registrarDispositivo(DispositivoIO dispositivo) {
+        boolean reemplazo = false;
+        try {
+            registroMutex.acquire();
+            DispositivoIO[] actuales = dispositivos;
+            for (DispositivoIO actual : actuales) {
+                reemplazo |= actual.getNombre().equals(dispositivo.getNombre());
+            }
+            if (reemplazo) {
+                DispositivoIO[] pendientes = reemplazosPendientes;
+                DispositivoIO[] nuevos = new DispositivoIO[pendientes.length + 1];
+                System.arraycopy(pendientes, 0, nuevos, 0, pendientes.length);
+                nuevos[pendientes.length] = dispositivo;
+                this.reemplazosPendientes = nuevos;
+            } else {
+                DispositivoIO[] nuevos = new DispositivoIO[actuales.length + 1];
+                System.arraycopy(actuales, 0, nuevos, 0, actuales.length);
+                nuevos[actuales.length] = dispositivo;
+                this.dispositivos = nuevos;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar el dispositivo " + dispositivo.getNombre());
+            return;
+        } finally {
+            registroMutex.release();
+        }
+        if (reemplazo) {
+            reloj.acotarLote(reloj.getCicloGlobal() + 1); // Que un lote sin ticks no lo demore
+        }
+    }
+
+    /**
+     * @return Dispositivos registrados (el genérico primero).
+     */
+    public DispositivoIO[] getDispositivos() {
+        return dispositivos;
+    }
+
+    /**
+     * @param nombre
+     * @return El dispositivo con ese nombre, o el genérico si no existe.
+     */
+    public DispositivoIO getDispositivo(String nombre) {
+        DispositivoIO[] actuales = dispositivos;
+        if (nombre != null) {
+            for (DispositivoIO dispositivo : actuales) {
+                if (dispositivo.getNombre().equals(nombre)) {
+                    return dispositivo;
+                }
+            }
+        }
+        return actuales[0];
+    }
+
+    @Override
+    public void alExcepcionIO(Procesador cpu, ProcessControlBlock pcb, int ciclo) {
+        if (cantidadAtrapados == atrapados.length) {
+            crecer();
+        }
+        atrapados[cantidadAtrapados] = pcb;
+        nucleosAtrapados[cantidadAtrapados] = cpu;
+        ciclosAtrapados[cantidadAtrapados] = ciclo;
+        cantidadAtrapados++;
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        aplicarReemplazos();
+        atenderTrampas();
+        rueda.avanzarHasta(cicloGlobal);
+    }
+
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        if (cantidadAtrapados > 0 || reemplazosPendientes.length > 0) {
+            return cicloActual + 1;
+        }
+        return rueda.proximaExpiracionEstimada();
+    }
+
+    @Override
+    public void alExpirar(Temporizador temporizador, int cicloActual) {
+        ProcessControlBlock pcb = temporizador.getPcb();
+        gestorMemoria.solicitarDesbloqueo(pcb);
+        solicitudesCompletadas++;
+
+        // El canal liberado pasa a la siguiente solicitud en espera del dispositivo que la atendió
+        DispositivoIO dispositivo = pcb.getDispositivoEnServicio();
+        pcb.setDispositivoEnServicio(null);
+        dispositivo.finalizarServicio();
+        ProcessControlBlock siguiente = dispositivo.siguiente(cicloActual);
+        if (siguiente != null) {
+            iniciarServicio(dispositivo, siguiente, cicloActual);
+        }
+    }
+
+    /**
+     * @return Solicitudes de E/S atrapadas desde el arranque.
+     */
+    public long getSolicitudesIniciadas() {
+        return solicitudesIniciadas;
+    }
+
+    public long getSolicitudesCompletadas() {
+        return solicitudesCompletadas;
+    }
+
+    /**
+     * @return Procesos siendo atendidos por un dispositivo en este momento.
+     */
+    public int getSolicitudesEnCurso() {
+        return rueda.getTamano();
+    }
+
+    /**
+     * @return Procesos esperando un canal libre en la cola de algún dispositivo.
+     */
+    public int getSolicitudesEnEspera() {
+        int total = 0;
+        for (DispositivoIO dispositivo : dispositivos) {
+            total += dispositivo.getEnCola();
+        }
+        for (DispositivoIO dispositivo : retirados) {
+            total += dispositivo.getEnCola();
+        }
+        return total;
+    }
+
+    /**
+     * Entrega los procesos atrapados en el pulso a su planificador y programa el
+     * fin de su E/S. Corre en el hilo del reloj: no toma ningún semáforo.
+     */
+    private void atenderTrampas() {
+        for (int i = 0; i < cantidadAtrapados; i++) {
+            ProcessControlBlock pcb = atrapados[i];
+            // El bloqueo se encola antes que su fin de E/S: el planificador los ve en orden
+            Planificador planificador = planificadorDe(nucleosAtrapados[i]);
+            if (planificador != null) {
+                planificador.recibirBloqueo(pcb);
+            } else {
+                gestorMemoria.bloquearProceso(pcb); // Núcleo sin planificador conectado
+            }
+            DispositivoIO dispositivo = getDispositivo(pcb.getDispositivoIO());
+            if (dispositivo.hayCanalLibre()) {
+                iniciarServicio(dispositivo, pcb, ciclosAtrapados[i]);
+            } else {
+                dispositivo.encolar(pcb, ciclosAtrapados[i]);
+            }
+            solicitudesIniciadas++;
+            atrapados[i] = null;
+            nucleosAtrapados[i] = null;
+        }
+        cantidadAtrapados = 0;
+    }
+
+    /**
+     * Ocupa un canal del dispositivo y programa el fin de la E/S en la rueda.
+     */
+    private void iniciarServicio(DispositivoIO dispositivo, ProcessControlBlock pcb, int ciclo) {
+        pcb.setDispositivoEnServicio(dispositivo);
+        rueda.programar(pcb.getTemporizadorIO(), dispositivo.iniciarServicio(pcb, ciclo));
+    }
+
+    /**
+     * Aplica los reemplazos pendientes. El dispositivo anterior termina lo que ya
+     * tiene en servicio o en su cola; las solicitudes nuevas van al reemplazo. Corre
+     * en el hilo del reloj y no espera: si un registro tiene el semáforo, se
+     * reintenta en el próximo pulso.
+     */
+    private void aplicarReemplazos() {
+        if (retirados.length > 0) {
+            descartarRetiradosOciosos();
+        }
+        if (reemplazosPendientes.length == 0 || !registroMutex.tryAcquire()) {
+            return;
+        }
+        try {
+            DispositivoIO[] actuales = dispositivos.clone();
+            for (DispositivoIO nuevo : reemplazosPendientes) {
+                for (int i = 0; i < actuales.length; i++) {
+                    if (actuales[i].getNombre().equals(nuevo.getNombre())) {
+                        if (actuales[i].getEnServicio() > 0 || actuales[i].getEnCola() > 0) {
+                            retirar(actuales[i]);
+                        }
+                        actuales[i] = nuevo;
+                        break;
+                    }
+                }
+            }
+            this.dispositivos = actuales;
+            this.reemplazosPendientes = new DispositivoIO[0];
+        } finally {
+            registroMutex.release();
+        }
+    }
+
+    private void retirar(DispositivoIO dispositivo) {
+        DispositivoIO[] nuevos = new DispositivoIO[retirados.length + 1];
+        System.arraycopy(retirados, 0, nuevos, 0, retirados.length);
+        nuevos[retirados.length] = dispositivo;
+        this.retirados = nuevos;
+    }
+
+    private void descartarRetiradosOciosos() {
+        DispositivoIO[] actuales = retirados;
+        int ocupados = 0;
+        for (DispositivoIO dispositivo : actuales) {
+            if (dispositivo.getEnServicio() > 0 || dispositivo.getEnCola() > 0) {
+                ocupados++;
+            }
+        }
+        if (ocupados == actuales.length) {
+            return;
+        }
+        DispositivoIO[] nuevos = new DispositivoIO[ocupados];
+        int j = 0;
+        for (DispositivoIO dispositivo : actuales) {
+            if (dispositivo.getEnServicio() > 0 || dispositivo.getEnCola() > 0) {
+                nuevos[j++] = dispositivo;
+            }
+        }
+        this.retirados = nuevos;
+    }
+
+    private Planificador planificadorDe(Procesador cpu) {
+        Procesador[] actuales = nucleos;
+        Planificador[] suyos = planificadores;
+        for (int i = 0; i < actuales.length && i < suyos.length; i++) {
+            if (actuales[i] == cpu) {
+                return suyos[i];
+            }
+        }
+        return null;
+    }
+
+    private void crecer() {
+        int nueva = atrapados.length * 2;
+        ProcessControlBlock[] pcbs = new ProcessControlBlock[nueva];
+        Procesador[] cpus = new Procesador[nueva];
+        int[] ciclos = new int[nueva];
+        System.arraycopy(atrapados, 0, pcbs, 0, cantidadAtrapados);
+        System.arraycopy(nucleosAtrapados, 0, cpus, 0, cantidadAtrapados);
+        System.arraycopy(ciclosAtrapados, 0, ciclos, 0, cantidadAtrapados);
+        this.atrapados = pcbs;
+        this.nucleosAtrapados = cpus;
+        this.ciclosAtrapados = ciclos;
+    }
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ package interrupciones;
 
 import hardware.Procesador;
 import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
 import motor.GestorMemoria;
 
 /**
@@ -14,8 +15,25 @@ import motor.GestorMemoria;
  */
 public class InyectorEventos {
 
+    /**
+     * Ciclos urgentes de una emergencia; lo que exceda se atiende como trabajo diferido.
+     */
+    public static final int CICLOS_MITAD_SUPERIOR_EMERGENCIA = 5;
+
+    /**
+     * Emergencias seguidas que se atienden antes de que actúe el limitador.
+     */
+    public static final int RAFAGA_EMERGENCIA = 3;
+
+    /**
+     * Ciclos para recuperar una emergencia de la ráfaga (tasa sostenida máxima).
+     */
+    public static final int CICLOS_POR_FICHA_EMERGENCIA = 100;
+
     private final Procesador cpu;
     private final GestorMemoria gestorMemoria;
+    private ControladorInterrupciones controladorInterrupciones;
+    private ControlAdmision controlAdmision;
 
     /**
      * Constructor exacto.
@@ -28,27 +46,73 @@ public class InyectorEventos {
     }
 
     /**
-     * Desata un evento crítico de hardware en su propio hilo de máxima prioridad.
+     * Conecta el controlador que atiende las interrupciones de hardware de la CPU.
+     * @param controlador
+     */
+    public void setControladorInterrupciones(ControladorInterrupciones controlador) {
+        this.controladorInterrupciones = controlador;
+    }
+
+    /**
+     * Conecta la prueba de planificabilidad que decide si cada proceso inyectado entra.
+     * @param control
+     */
+    public void setControlAdmision(ControlAdmision control) {
+        this.controlAdmision = control;
+    }
+
+    /**
+     * Levanta una interrupción de emergencia en el nivel más alto del controlador.
+     * La primera vez que aparece un nombre se registra su línea: los primeros
+     * CICLOS_MITAD_SUPERIOR_EMERGENCIA ciclos son la mitad superior y el resto se
+     * difiere a la mitad inferior, con un limitador de RAFAGA_EMERGENCIA seguidas y
+     * una más cada CICLOS_POR_FICHA_EMERGENCIA ciclos. Las que se repiten antes de
+     * ser atendidas se fusionan; las que exceden la tasa se descartan.
+     * No crea hilos; solo toma, por un instante, el semáforo de registro del controlador.
      * @param nombre Descripción del evento.
-     * @param ciclos Duración del evento en la CPU.
+     * @param ciclos Duración total del evento en la CPU.
      */
     public void dispararInterrupcionHardware(String nombre, int ciclos) {
-        HiloInterrupcionEmergencia hiloEmergencia = new HiloInterrupcionEmergencia(nombre, ciclos, this.cpu);
-        hiloEmergencia.start();
+        ControladorInterrupciones controlador = this.controladorInterrupciones;
+        if (controlador == null) {
+            System.err.println("Interrupción " + nombre + " ignorada: la CPU " + cpu.getIdNucleo() + " no tiene controlador.");
+            return;
+        }
+        int superior = Math.min(Math.max(1, ciclos), CICLOS_MITAD_SUPERIOR_EMERGENCIA);
+        int linea = controlador.buscarORegistrarLinea(nombre, ControladorInterrupciones.NIVEL_MAXIMO,
+                superior, Math.max(0, ciclos - superior), RAFAGA_EMERGENCIA, CICLOS_POR_FICHA_EMERGENCIA);
+        if (controlador.solicitar(linea)) {
+            System.out.println(">>> [EMERGENCIA DE HARDWARE] " + nombre + " detectado. Expropiando CPU...");
+        } else {
+            System.out.println(">>> [EMERGENCIA DE HARDWARE] " + nombre + " descartado por el limitador de tasa.");
+        }
     }
 
     /**
      * Inyecta de manera repentina un nuevo proceso al sistema.
      * Al entrar en la memoria/colas de listos, el planificador reevaluará las prioridades.
+     * Con control de admisión, solo entra si su deadline es alcanzable sin comprometer
+     * a los ya admitidos; si no, queda en espera o se rechaza.
      * @param nuevoPcb El PCB del proceso aperiódico.
+     * @return Veredicto de admisión, o null si no se inyectó nada.
      */
-    public void inyectarProcesoAperiodico(ProcessControlBlock nuevoPcb) {
-        if (nuevoPcb != null && this.gestorMemoria != null) {
-            System.out.println("Inyectando proceso aperiódico repentino: " + nuevoPcb.getNombre());
-            
-            // Asume que tu compañero creó este método en GestorMemoria para encolar el proceso.
-            // Si lo llamó distinto (ej. agregarProceso), ajústalo aquí.
-            this.gestorMemoria.admitirNuevoProceso(nuevoPcb);
+    public ControlAdmision.Resultado inyectarProcesoAperiodico(ProcessControlBlock nuevoPcb) {
+        if (nuevoPcb == null || this.gestorMemoria == null) {
+            return null;
+        }
+        ControlAdmision.Resultado resultado = (controlAdmision != null)
+                ? controlAdmision.evaluar(nuevoPcb)
+                : new ControlAdmision.Resultado(ControlAdmision.Decision.ACEPTAR, "sin control de admisión");
+
+        switch (resultado.getDecision()) {
+            case ACEPTAR -> {
+                System.out.println("Inyectando proceso aperiódico repentino: " + nuevoPcb.getNombre());
+                // Depósito sin bloqueos: el Planificador lo admite en lote en su próxima pasada
+                this.gestorMemoria.solicitarAdmision(nuevoPcb);
+            }
+            case ENCOLAR -> System.out.println("Proceso " + nuevoPcb.getNombre() + " en espera de admisión: " + resultado.getMotivo());
+            case RECHAZAR -> System.out.println("Proceso " + nuevoPcb.getNombre() + " rechazado: " + resultado.getMotivo());
         }
+        return resultado;
     }
 }
\ No newline at end of file
@@ -4,6 +4,10 @@
  */
 package modelos;
 
+import estructuras.Node;
+import estructuras.Temporizador;
+import hardware.DispositivoIO;
+
 /**
  * Representa el Bloque de Control de Proceso (PCB) de una tarea en el RTOS.
  * Mantiene el contexto de ejecución, restricciones de tiempo (deadline) y
@@ -30,15 +34,55 @@ public class ProcessControlBlock {
     private int cantidadInstrucciones;
     private int prioridad;
     private int deadline;
-    private int tiempoRestanteDeadline;
+    // Tiempo absoluto: ciclo de llegada y ciclo límite (llegada + deadline relativo)
+    private int cicloLlegada;
+    private int deadlineAbsoluto;
+    private int cicloFinalizacion;
+    private boolean llegadaRegistrada;
     private int pc;
     private int mar;
     private boolean esTipoIO;
     private int ciclosParaExcepcionIO;
     private int ciclosParaSatisfacerIO;
 
+    // Nodo de enlace propio para las colas intrusivas (se reserva una sola vez)
+    private final Node nodoCola;
+
+    // Nivel actual en la cola multinivel con retroalimentación (0 = más urgente)
+    private int nivelMLFQ;
+
+    // Entrada propia en la rueda del MonitorDeadlines y resultado de la vigilancia
+    private final Temporizador temporizadorDeadline;
+    private volatile boolean deadlineVencido;
+
+    // Entrada en la rueda del gestor de sobrecarga (vence al agotarse la laxitud)
+    private final Temporizador temporizadorHolgura;
+    // Degradado por sobrecarga: se ordena detrás de todo proceso todavía factible
+    private volatile boolean degradado;
+
     /**
-     * Constructor principal del PCB. Inicializa los registros y el contador del deadline.
+     * Desplazamiento que se suma al deadline de un proceso degradado para ordenarlo al fondo.
+     * Supera todo el rango de int, así que ningún deadline factible lo alcanza.
+     */
+    public static final long DESPLAZAMIENTO_DEGRADADO = 1L << 32;
+
+    // Entrada en la rueda del GestorEntradaSalida (vence al completarse la E/S)
+    private final Temporizador temporizadorIO;
+    // La CPU ya atrapó su solicitud de E/S (se realiza una sola vez)
+    private volatile boolean solicitudIORealizada;
+    // Dispositivo que usa su E/S (null = el genérico) y posición de los datos en él (SSTF)
+    private String dispositivoIO;
+    private int posicionIO;
+    // Dispositivo que atiende la solicitud en curso (solo lo usa el hilo del reloj)
+    private DispositivoIO dispositivoEnServicio;
+
+    // Reserva hecha por el ControlAdmision: instrucciones cargadas y ciclo desde el que cuentan
+    private int demandaAdmitida;
+    private int deadlineDemanda;
+
+    /**
+     * Constructor principal del PCB. Inicializa los registros y el deadline absoluto
+     * asumiendo llegada en el ciclo 0 (se corrige al ser admitido).
      * * @param id Identificador único.
      * @param id
      * @param nombre Nombre descriptivo de la tarea.
@@ -62,18 +106,233 @@ public class ProcessControlBlock {
         // Inicializaciones de registros y variables de control por defecto
         this.pc = 0;
         this.mar = 0;
-        this.tiempoRestanteDeadline = deadline;
+        this.cicloLlegada = 0;
+        this.deadlineAbsoluto = deadline;
+        this.cicloFinalizacion = -1;
+        this.llegadaRegistrada = false;
         this.estado = EstadoProceso.NUEVO.name();
+        this.nodoCola = new Node(this);
+        this.nivelMLFQ = 0;
+        this.temporizadorDeadline = new Temporizador(this);
+        this.deadlineVencido = false;
+        this.temporizadorHolgura = new Temporizador(this);
+        this.degradado = false;
+        this.temporizadorIO = new Temporizador(this);
+        this.solicitudIORealizada = false;
+        this.dispositivoIO = null;
+        this.posicionIO = 0;
+        this.demandaAdmitida = 0;
+        this.deadlineDemanda = 0;
     }
 
     /**
      * Simula el avance de un ciclo de reloj de la CPU en el proceso actual.
-     * Incrementa los registros e intenta cumplir el deadline (cuenta regresiva).
+     * Solo incrementa los registros: el deadline es absoluto y no se toca por ciclo.
+     * @param cicloGlobal Ciclo del reloj en que se ejecuta la instrucción.
      */
-    public void avanzarCicloReloj() {
+    public void avanzarCicloReloj(int cicloGlobal) {
         this.pc++;
         this.mar++;
-        this.tiempoRestanteDeadline--;
+        if (this.pc == this.cantidadInstrucciones) {
+            this.cicloFinalizacion = cicloGlobal;
+        }
+    }
+
+    /**
+     * Avanza varios ciclos de una sola vez (reloj sin ticks). Nunca pasa del final
+     * del programa y fija el ciclo de finalización exacto si lo alcanza.
+     * @param ciclos Ciclos a ejecutar.
+     * @param primerCiclo Ciclo global del primero de ellos.
+     * @return Ciclos efectivamente ejecutados.
+     */
+    public int avanzarCiclosReloj(int ciclos, int primerCiclo) {
+        int ejecutados = Math.max(0, Math.min(ciclos, cantidadInstrucciones - pc));
+        if (ejecutados == 0) {
+            return 0;
+        }
+        this.pc += ejecutados;
+        this.mar += ejecutados;
+        if (this.pc == this.cantidadInstrucciones) {
+            this.cicloFinalizacion = primerCiclo + ejecutados - 1;
+        }
+        return ejecutados;
+    }
+
+    /**
+     * Fija el ciclo de llegada al sistema y, con él, el deadline absoluto.
+     * @param ciclo Ciclo global en que el proceso fue admitido.
+     */
+    public void registrarLlegada(int ciclo) {
+        this.cicloLlegada = ciclo;
+        this.deadlineAbsoluto = ciclo + deadline;
+        this.llegadaRegistrada = true;
+    }
+
+    /**
+     * @return true si la llegada ya fue registrada (por el control de admisión o la memoria).
+     */
+    public boolean isLlegadaRegistrada() {
+        return llegadaRegistrada;
+    }
+
+    /**
+     * Tiempo que le queda al proceso hasta su deadline, derivado del reloj.
+     * @param cicloActual Ciclo global de referencia (RelojSistema.getCicloGlobal()).
+     * @return Ciclos restantes; negativo si el deadline ya pasó.
+     */
+    public int getTiempoRestanteDeadline(int cicloActual) {
+        return deadlineAbsoluto - cicloActual;
+    }
+
+    /**
+     * Instrucciones que le faltan por ejecutar.
+     * @return
+     */
+    public int getInstruccionesRestantes() {
+        return cantidadInstrucciones - pc;
+    }
+
+    /**
+     * Laxitud (holgura): ciclos que puede esperar sin perder el deadline.
+     * @param cicloActual Ciclo global de referencia.
+     * @return Negativo si ya no puede terminar a tiempo.
+     */
+    public int getLaxitud(int cicloActual) {
+        return getTiempoRestanteDeadline(cicloActual) - getInstruccionesRestantes();
+    }
+
+    /**
+     * Deadline con el que se ordena: el absoluto, o uno al fondo si fue degradado.
+     * @return
+     */
+    public long getDeadlineEfectivo() {
+        return degradado ? deadlineAbsoluto + DESPLAZAMIENTO_DEGRADADO : deadlineAbsoluto;
+    }
+
+    /**
+     * @return true si terminó a más tardar en su ciclo límite.
+     */
+    public boolean cumplioDeadline() {
+        return cicloFinalizacion >= 0 && cicloFinalizacion <= deadlineAbsoluto;
+    }
+
+    /**
+     * Nodo de enlace intrusivo: las colas en modo intrusivo enlazan al PCB a través
+     * de este nodo en lugar de crear uno nuevo en cada encolado.
+     * @return Nodo propio del PCB.
+     */
+    public Node getNodoCola() {
+        return nodoCola;
+    }
+
+    public int getDemandaAdmitida() {
+        return demandaAdmitida;
+    }
+
+    public int getDeadlineDemanda() {
+        return deadlineDemanda;
+    }
+
+    /**
+     * Registra (o libera, con 0) la demanda reservada por el control de admisión.
+     * @param demanda Instrucciones cargadas en la prueba de planificabilidad.
+     * @param deadlineDemanda Ciclo desde el que se cargó la demanda.
+     */
+    public void setDemandaAdmitida(int demanda, int deadlineDemanda) {
+        this.demandaAdmitida = demanda;
+        this.deadlineDemanda = deadlineDemanda;
+    }
+
+    public int getNivelMLFQ() {
+        return nivelMLFQ;
+    }
+
+    public void setNivelMLFQ(int nivelMLFQ) {
+        this.nivelMLFQ = nivelMLFQ;
+    }
+
+    /**
+     * Temporizador que el MonitorDeadlines programa para el vencimiento del deadline.
+     * @return Temporizador propio del PCB.
+     */
+    public Temporizador getTemporizadorDeadline() {
+        return temporizadorDeadline;
+    }
+
+    /**
+     * @return true si el reloj alcanzó el deadline antes de que el proceso terminara.
+     */
+    public boolean isDeadlineVencido() {
+        return deadlineVencido;
+    }
+
+    public void setDeadlineVencido(boolean deadlineVencido) {
+        this.deadlineVencido = deadlineVencido;
+    }
+
+    public Temporizador getTemporizadorHolgura() {
+        return temporizadorHolgura;
+    }
+
+    /**
+     * Instrucciones que faltan para que la CPU atrape la solicitud de E/S.
+     * @return 0 si debe atraparse ya; Integer.MAX_VALUE si no hará (más) E/S.
+     */
+    public int getCiclosHastaExcepcionIO() {
+        if (!esTipoIO || solicitudIORealizada || ciclosParaExcepcionIO >= cantidadInstrucciones) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, ciclosParaExcepcionIO - pc);
+    }
+
+    public boolean isSolicitudIORealizada() {
+        return solicitudIORealizada;
+    }
+
+    public void setSolicitudIORealizada(boolean solicitudIORealizada) {
+        this.solicitudIORealizada = solicitudIORealizada;
+    }
+
+    public Temporizador getTemporizadorIO() {
+        return temporizadorIO;
+    }
+
+    public String getDispositivoIO() {
+        return dispositivoIO;
+    }
+
+    /**
+     * @param dispositivoIO Nombre de un DispositivoIO registrado en el GestorEntradaSalida.
+     */
+    public void setDispositivoIO(String dispositivoIO) {
+        this.dispositivoIO = dispositivoIO;
+    }
+
+    public int getPosicionIO() {
+        return posicionIO;
+    }
+
+    public void setPosicionIO(int posicionIO) {
+        this.posicionIO = posicionIO;
+    }
+
+    /**
+     * @return Dispositivo que ocupa un canal con su E/S, o null si no está en servicio.
+     */
+    public DispositivoIO getDispositivoEnServicio() {
+        return dispositivoEnServicio;
+    }
+
+    public void setDispositivoEnServicio(DispositivoIO dispositivoEnServicio) {
+        this.dispositivoEnServicio = dispositivoEnServicio;
+    }
+
+    public boolean isDegradado() {
+        return degradado;
+    }
+
+    public void setDegradado(boolean degradado) {
+        this.degradado = degradado;
     }
 
     // ==========================================
@@ -140,12 +399,16 @@ public class ProcessControlBlock {
         this.deadline = deadline;
     }
 
-    public int getTiempoRestanteDeadline() {
-        return tiempoRestanteDeadline;
+    public int getCicloLlegada() {
+        return cicloLlegada;
+    }
+
+    public int getDeadlineAbsoluto() {
+        return deadlineAbsoluto;
     }
 
-    public void setTiempoRestanteDeadline(int tiempoRestanteDeadline) {
-        this.tiempoRestanteDeadline = tiempoRestanteDeadline;
+    public int getCicloFinalizacion() {
+        return cicloFinalizacion;
     }
 
     public int getPc() {
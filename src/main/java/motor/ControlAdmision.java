@@ -0,0 +1,504 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package motor;
+
+import estructuras.ColaMultinivel;
+import estructuras.CriterioOrden;
+import estructuras.MonticuloIndexado;
+import estructuras.ThreadSafeQueue;
+import hardware.OyenteReloj;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Control de Admisión con análisis de planificabilidad incremental.
+ * Antes de aceptar un proceso verifica que el sistema pueda cumplir su deadline
+ * sin comprometer los de los procesos ya admitidos, y responde ACEPTAR,
+ * ENCOLAR (esperar a que se libere capacidad) o RECHAZAR, con el motivo.
+ *
+ * Pruebas disponibles:
+ * - DEMANDA_EDF: para todo ciclo d, la demanda de los procesos con deadline <= d
+ *   no puede superar la capacidad núcleos * (d - ahora). Se guarda en un árbol de
+ *   segmentos sobre una ventana deslizante de ciclos (valor núcleos*d - demanda(d)),
+ *   con suma por rango y mínimo por rango: admitir, retirar y consultar son O(log H).
+ * - DEMANDA_PRIORIDAD: con prioridad fija expropiativa, un proceso termina a más
+ *   tardar cuando se agota el trabajo de su nivel y de los más prioritarios. Para
+ *   el nuevo y para el deadline más cercano de cada nivel igual o menos prioritario,
+ *   esa demanda debe caber en núcleos * (deadline - ahora). Se guarda la demanda
+ *   por nivel y un montículo de deadlines por nivel: admitir es O(NIVELES + log n).
+ * - NINGUNA: para políticas sin cota de planificabilidad (FCFS, RR, SRT, MLFQ) solo
+ *   se rechaza lo que no cabe ni con la CPU exclusiva; la demanda se sigue
+ *   registrando para que un cambio a EDF parta de la cuenta correcta.
+ *
+ * La prueba la fija el Planificador según la política activa (setPrueba).
+ *
+ * El trabajo de un proceso se descuenta de la demanda recién cuando termina (o es
+ * descartado), por lo que la prueba es conservadora mientras está en ejecución.
+ * Ambas pruebas de demanda son exactas con un núcleo.
+ */
+public class ControlAdmision implements OyenteReloj {
+
+    public enum Prueba {
+        DEMANDA_EDF,
+        DEMANDA_PRIORIDAD,
+        NINGUNA
+    }
+
+    public enum Decision {
+        ACEPTAR,
+        ENCOLAR,
+        RECHAZAR
+    }
+
+    /**
+     * Veredicto de admisión con su motivo legible.
+     */
+    public static final class Resultado {
+        private final Decision decision;
+        private final String motivo;
+
+        public Resultado(Decision decision, String motivo) {
+            this.decision = decision;
+            this.motivo = motivo;
+        }
+
+        public Decision getDecision() {
+            return decision;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return decision + ": " + motivo;
+        }
+    }
+
+    private static final int BITS_HORIZONTE = 12;
+    private static final int HORIZONTE = 1 << BITS_HORIZONTE; // Ciclos cubiertos por el árbol
+    private static final int MAX_EN_ESPERA_POR_DEFECTO = 64;
+
+    private final GestorMemoria gestorMemoria;
+    private final RelojSistema reloj;
+    private final int nucleos;
+    private final Semaphore mutex;
+    private final ThreadSafeQueue enEspera;
+    private final int maxEnEspera;
+
+    private Prueba prueba;
+
+    // Árbol de segmentos (mínimo + suma pendiente) sobre la ventana [base, base + HORIZONTE)
+    private final long[] minimo;
+    private final long[] pendiente;
+    private int base;
+    private long demandaTotal;
+
+    // Demanda admitida y deadlines pendientes por nivel de prioridad (DEMANDA_PRIORIDAD)
+    private final long[] demandaNivel;
+    private final MonticuloIndexado[] deadlinesNivel;
+
+    private volatile int aceptados;
+    private volatile int encolados;
+    private volatile int rechazados;
+    private volatile String ultimoMotivoRechazo;
+
+    /**
+     * Crea el control y lo conecta al gestor (retiros) y al reloj (ventana deslizante).
+     * @param gestor Gestor de memoria al que se entregan los procesos aceptados.
+     * @param reloj Reloj del sistema.
+     * @param nucleos Núcleos que atienden la cola (capacidad por ciclo).
+     */
+    public ControlAdmision(GestorMemoria gestor, RelojSistema reloj, int nucleos) {
+        this.gestorMemoria = gestor;
+        this.reloj = reloj;
+        this.nucleos = nucleos;
+        this.mutex = new Semaphore(1);
+        this.enEspera = new ThreadSafeQueue(true);
+        this.enEspera.setCriterioOrden(CriterioOrden.DEADLINE);
+        this.maxEnEspera = MAX_EN_ESPERA_POR_DEFECTO;
+        this.prueba = Prueba.DEMANDA_EDF;
+        this.minimo = new long[2 * HORIZONTE];
+        this.pendiente = new long[2 * HORIZONTE];
+        this.base = reloj.getCicloGlobal();
+        this.demandaTotal = 0;
+        this.demandaNivel = new long[ColaMultinivel.NIVELES];
+        this.deadlinesNivel = new MonticuloIndexado[ColaMultinivel.NIVELES];
+        for (int i = 0; i < ColaMultinivel.NIVELES; i++) {
+            deadlinesNivel[i] = new MonticuloIndexado(CriterioOrden.DEADLINE);
+        }
+        construir();
+
+        gestor.setControlAdmision(this);
+        reloj.agregarOyente(this);
+    }
+
+    /**
+     * Cambia la prueba según la política activa (ej. DEMANDA_PRIORIDAD para prioridad fija).
+     * La llama el Planificador al activar una política.
+     * @param prueba
+     */
+    public void setPrueba(Prueba prueba) {
+        try {
+            mutex.acquire();
+            this.prueba = prueba;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al cambiar la prueba de admisión.");
+        } finally {
+            mutex.release();
+        }
+    }
+
+    /**
+     * Evalúa un proceso recién llegado. Si es aceptado, su demanda queda reservada
+     * y el llamador debe entregarlo al GestorMemoria; si queda en espera, el control
+     * lo entregará solo cuando se libere capacidad.
+     * @param pcb Proceso nuevo.
+     * @return Veredicto con motivo.
+     */
+    public Resultado evaluar(ProcessControlBlock pcb) {
+        Resultado resultado;
+        try {
+            mutex.acquire();
+            if (!pcb.isLlegadaRegistrada()) {
+                pcb.registrarLlegada(reloj.getCicloGlobal());
+            }
+            resultado = evaluarConMutexTomado(pcb, true);
+            if (resultado.getDecision() == Decision.ENCOLAR) {
+                enEspera.encolar(pcb);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Resultado(Decision.RECHAZAR, "admisión interrumpida");
+        } finally {
+            mutex.release();
+        }
+        contar(resultado);
+        return resultado;
+    }
+
+    /**
+     * Devuelve la demanda de un proceso que terminó o fue descartado y reintenta
+     * admitir a los que esperan capacidad.
+     * @param pcb
+     */
+    public void retirar(ProcessControlBlock pcb) {
+        int demanda = pcb.getDemandaAdmitida();
+        if (demanda <= 0) {
+            return; // Nunca fue reservado por este control
+        }
+        try {
+            mutex.acquire();
+            int desde = Math.max(pcb.getDeadlineDemanda(), base);
+            sumarEnVentana(desde, demanda);
+            demandaTotal -= demanda;
+            int nivel = ColaMultinivel.nivelDe(pcb.getPrioridad());
+            demandaNivel[nivel] -= demanda;
+            deadlinesNivel[nivel].eliminar(pcb); // Ausente si su deadline ya pasó
+            pcb.setDemandaAdmitida(0, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al retirar demanda de admisión.");
+            return;
+        } finally {
+            mutex.release();
+        }
+        reintentarEnEspera();
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        try {
+            mutex.acquire();
+            if (cicloGlobal - base >= HORIZONTE) {
+                base = cicloGlobal;
+                construir(); // Salto mayor que la ventana: reconstruir completa
+            } else {
+                while (base < cicloGlobal) {
+                    // El ciclo que sale de la ventana se recicla como el nuevo ciclo final
+                    int nuevo = base + HORIZONTE;
+                    asignarHoja(nuevo, (long) nucleos * nuevo - demandaTotal);
+                    base++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al deslizar la ventana de admisión.");
+        } finally {
+            mutex.release();
+        }
+    }
+
+    /**
+     * La ventana tolera saltos de cualquier tamaño: no necesita pulsos intermedios.
+     */
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        return Integer.MAX_VALUE;
+    }
+
+    public int getAceptados() {
+        return aceptados;
+    }
+
+    public int getEncolados() {
+        return encolados;
+    }
+
+    public int getRechazados() {
+        return rechazados;
+    }
+
+    /**
+     * @return Motivo del último rechazo (incluidos los de reintentos), o null si no hubo.
+     */
+    public String getUltimoMotivoRechazo() {
+        return ultimoMotivoRechazo;
+    }
+
+    public Prueba getPrueba() {
+        return prueba;
+    }
+
+    public int getEnEspera() {
+        return enEspera.obtenerTamanoSeguro();
+    }
+
+    private Resultado evaluarConMutexTomado(ProcessControlBlock pcb, boolean puedeEsperar) {
+        int ahora = reloj.getCicloGlobal();
+        int instrucciones = pcb.getInstruccionesRestantes();
+        int deadline = pcb.getDeadlineAbsoluto();
+
+        if (ahora + instrucciones > deadline) {
+            return new Resultado(Decision.RECHAZAR, "necesita " + instrucciones
+                    + " ciclos y solo quedan " + Math.max(0, deadline - ahora) + " hasta su deadline");
+        }
+
+        String motivo;
+        if (prueba == Prueba.NINGUNA) {
+            reservar(pcb, deadline, instrucciones);
+            return new Resultado(Decision.ACEPTAR, "la política activa no tiene prueba de planificabilidad");
+        } else if (prueba == Prueba.DEMANDA_PRIORIDAD) {
+            String conflicto = conflictoPrioridad(pcb, ahora, instrucciones, deadline);
+            if (conflicto == null) {
+                reservar(pcb, deadline, instrucciones);
+                return new Resultado(Decision.ACEPTAR, "la demanda de cada nivel cabe antes de sus deadlines");
+            }
+            motivo = conflicto;
+        } else {
+            int desde = acotar(deadline);
+            long holgura = minimoEnVentana(desde) - (long) nucleos * ahora;
+            if (holgura >= instrucciones) {
+                reservar(pcb, deadline, instrucciones);
+                return new Resultado(Decision.ACEPTAR, "holgura de demanda " + (holgura - instrucciones) + " ciclos");
+            }
+            motivo = "demanda excede la capacidad antes del ciclo " + deadline
+                    + " (holgura " + holgura + ", necesita " + instrucciones + ")";
+        }
+
+        if (puedeEsperar && enEspera.obtenerTamanoSeguro() < maxEnEspera) {
+            return new Resultado(Decision.ENCOLAR, motivo + "; espera capacidad");
+        }
+        return new Resultado(Decision.RECHAZAR, motivo);
+    }
+
+    private void reservar(ProcessControlBlock pcb, int deadline, int instrucciones) {
+        int desde = acotar(deadline);
+        sumarEnVentana(desde, -instrucciones);
+        demandaTotal += instrucciones;
+        // Se registra con cualquier prueba para que un cambio a prioridad fija parta de la cuenta correcta
+        int nivel = ColaMultinivel.nivelDe(pcb.getPrioridad());
+        demandaNivel[nivel] += instrucciones;
+        deadlinesNivel[nivel].insertar(pcb);
+        pcb.setDemandaAdmitida(instrucciones, desde);
+    }
+
+    /**
+     * Prueba de prioridad fija para un proceso del nivel p: la demanda de los niveles
+     * 0..p más la suya debe caber antes de su deadline, y la de los niveles 0..q
+     * antes del deadline más cercano del nivel q, para todo q >= p (el nuevo los retrasa).
+     * @return Motivo del primer conflicto, o null si cabe.
+     */
+    private String conflictoPrioridad(ProcessControlBlock pcb, int ahora, int instrucciones, int deadline) {
+        int nivelNuevo = ColaMultinivel.nivelDe(pcb.getPrioridad());
+        long demanda = instrucciones;
+        for (int nivel = 0; nivel < ColaMultinivel.NIVELES; nivel++) {
+            demanda += demandaNivel[nivel];
+            if (nivel < nivelNuevo) {
+                continue; // El nuevo no retrasa a los más prioritarios
+            }
+            int limite = deadlineMasCercano(nivel, ahora);
+            if (nivel == nivelNuevo) {
+                limite = Math.min(limite, deadline);
+            }
+            if (limite != Integer.MAX_VALUE && demanda > (long) nucleos * (limite - ahora)) {
+                return "la demanda de los niveles 0.." + nivel + " (" + demanda
+                        + ") excede la capacidad antes del ciclo " + limite;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deadline más cercano entre los admitidos del nivel. Los que ya lo perdieron
+     * dejan de acotar (su demanda sigue contando hasta que se retiren).
+     * @return Ciclo absoluto, o Integer.MAX_VALUE si no queda ninguno.
+     */
+    private int deadlineMasCercano(int nivel, int ahora) {
+        MonticuloIndexado deadlines = deadlinesNivel[nivel];
+        ProcessControlBlock primero = deadlines.verPrimero();
+        while (primero != null && primero.getDeadlineAbsoluto() < ahora) {
+            deadlines.eliminarPrimero();
+            primero = deadlines.verPrimero();
+        }
+        return (primero == null) ? Integer.MAX_VALUE : primero.getDeadlineAbsoluto();
+    }
+
+    /**
+     * Reintenta, en orden de deadline, a los procesos que esperan capacidad.
+     * La decisión y la extracción ocurren con el mutex tomado para que dos retiros
+     * simultáneos no reserven dos veces al mismo proceso.
+     */
+    private void reintentarEnEspera() {
+        while (true) {
+            ProcessControlBlock candidato;
+            Resultado resultado;
+            try {
+                mutex.acquire();
+                candidato = enEspera.verPrimero();
+                if (candidato == null) {
+                    return;
+                }
+                resultado = evaluarConMutexTomado(candidato, false);
+                if (resultado.getDecision() == Decision.RECHAZAR
+                        && reloj.getCicloGlobal() + candidato.getInstruccionesRestantes() <= candidato.getDeadlineAbsoluto()) {
+                    return; // El más urgente aún no cabe pero sigue siendo factible: seguir esperando
+                }
+                enEspera.extraer(candidato);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupción al reintentar la admisión de procesos en espera.");
+                return;
+            } finally {
+                mutex.release();
+            }
+
+            contar(resultado);
+            if (resultado.getDecision() == Decision.ACEPTAR) {
+                gestorMemoria.solicitarAdmision(candidato);
+            }
+        }
+    }
+
+    private void contar(Resultado resultado) {
+        switch (resultado.getDecision()) {
+            case ACEPTAR -> aceptados++;
+            case ENCOLAR -> encolados++;
+            case RECHAZAR -> {
+                rechazados++;
+                ultimoMotivoRechazo = resultado.getMotivo();
+            }
+        }
+    }
+
+    /**
+     * Lleva un ciclo a la ventana actual (los deadlines lejanos se adelantan: conservador).
+     */
+    private int acotar(int ciclo) {
+        return Math.max(base, Math.min(ciclo, base + HORIZONTE - 1));
+    }
+
+    // ==========================================
+    // ÁRBOL DE SEGMENTOS SOBRE LA VENTANA CIRCULAR
+    // ==========================================
+
+    private void construir() {
+        for (int i = 0; i < HORIZONTE; i++) {
+            int ciclo = base + i;
+            minimo[HORIZONTE + (ciclo & (HORIZONTE - 1))] = (long) nucleos * ciclo - demandaTotal;
+        }
+        for (int i = HORIZONTE - 1; i >= 1; i--) {
+            minimo[i] = Math.min(minimo[2 * i], minimo[2 * i + 1]);
+            pendiente[i] = 0;
+        }
+        for (int i = HORIZONTE; i < 2 * HORIZONTE; i++) {
+            pendiente[i] = 0;
+        }
+    }
+
+    /**
+     * Suma un valor a todos los ciclos de [desde, fin de ventana].
+     */
+    private void sumarEnVentana(int desde, long valor) {
+        int inicio = desde & (HORIZONTE - 1);
+        int fin = (base + HORIZONTE - 1) & (HORIZONTE - 1);
+        if (inicio <= fin) {
+            sumar(1, 0, HORIZONTE - 1, inicio, fin, valor);
+        } else {
+            sumar(1, 0, HORIZONTE - 1, inicio, HORIZONTE - 1, valor);
+            sumar(1, 0, HORIZONTE - 1, 0, fin, valor);
+        }
+    }
+
+    /**
+     * Mínimo de núcleos*d - demanda(d) para d en [desde, fin de ventana].
+     */
+    private long minimoEnVentana(int desde) {
+        int inicio = desde & (HORIZONTE - 1);
+        int fin = (base + HORIZONTE - 1) & (HORIZONTE - 1);
+        if (inicio <= fin) {
+            return consultar(1, 0, HORIZONTE - 1, inicio, fin);
+        }
+        return Math.min(consultar(1, 0, HORIZONTE - 1, inicio, HORIZONTE - 1),
+                consultar(1, 0, HORIZONTE - 1, 0, fin));
+    }
+
+    private void sumar(int nodo, int izq, int der, int desde, int hasta, long valor) {
+        if (hasta < izq || der < desde) {
+            return;
+        }
+        if (desde <= izq && der <= hasta) {
+            minimo[nodo] += valor;
+            pendiente[nodo] += valor;
+            return;
+        }
+        int mitad = (izq + der) >>> 1;
+        sumar(2 * nodo, izq, mitad, desde, hasta, valor);
+        sumar(2 * nodo + 1, mitad + 1, der, desde, hasta, valor);
+        minimo[nodo] = Math.min(minimo[2 * nodo], minimo[2 * nodo + 1]) + pendiente[nodo];
+    }
+
+    private long consultar(int nodo, int izq, int der, int desde, int hasta) {
+        if (hasta < izq || der < desde) {
+            return Long.MAX_VALUE;
+        }
+        if (desde <= izq && der <= hasta) {
+            return minimo[nodo];
+        }
+        int mitad = (izq + der) >>> 1;
+        long menor = Math.min(consultar(2 * nodo, izq, mitad, desde, hasta),
+                consultar(2 * nodo + 1, mitad + 1, der, desde, hasta));
+        return menor + pendiente[nodo];
+    }
+
+    /**
+     * Fija el valor absoluto de la hoja de un ciclo, descontando las sumas pendientes de sus ancestros.
+     */
+    private void asignarHoja(int ciclo, long valor) {
+        int hoja = HORIZONTE + (ciclo & (HORIZONTE - 1));
+        long acumulado = 0;
+        for (int i = hoja >>> 1; i >= 1; i >>>= 1) {
+            acumulado += pendiente[i];
+        }
+        minimo[hoja] = valor - acumulado;
+        pendiente[hoja] = 0;
+        for (int i = hoja >>> 1; i >= 1; i >>>= 1) {
+            minimo[i] = Math.min(minimo[2 * i], minimo[2 * i + 1]) + pendiente[i];
+        }
+    }
+}
\ No newline at end of file
@@ -4,7 +4,9 @@
  */
 package motor;
 
+import estructuras.ColaLockFree;
 import estructuras.ThreadSafeQueue;
+import hardware.RelojSistema;
 import modelos.ProcessControlBlock;
 import java.util.concurrent.Semaphore;
 
@@ -22,26 +24,90 @@ public class GestorMemoria {
     private final ThreadSafeQueue colaListosSuspendidos;
     private final ThreadSafeQueue colaBloqueadosSuspendidos;
 
+    // Bandeja sin bloqueos donde los productores depositan procesos nuevos
+    private final ColaLockFree bandejaAdmision;
+
+    // Bandeja sin bloqueos donde el subsistema de E/S deposita las E/S terminadas
+    private final ColaLockFree bandejaDesbloqueo;
+
+    // E/S que terminaron antes de que se aplicara su bloqueo (protegido por gestorMutex)
+    private ProcessControlBlock[] desbloqueosAdelantados;
+    private int cantidadAdelantados;
+
     // Control de límite de memoria principal (RAM)
     private final int limiteMemoriaPrincipal;
     private int procesosEnMemoriaActual;
     private final Semaphore gestorMutex;
 
+    // Vigilancia de deadlines (opcional: sin monitor no se rastrean vencimientos)
+    private MonitorDeadlines monitorDeadlines;
+
+    // Fuente del tiempo de llegada (sin reloj, todo llega en el ciclo 0)
+    private RelojSistema reloj;
+
+    // Despierta al planificador cuando hay admisiones pendientes en la bandeja
+    private volatile Runnable avisoPlanificador;
+
+    // Prueba de planificabilidad (opcional: sin control se admite todo)
+    private ControlAdmision controlAdmision;
+
     /**
      * Constructor principal.
      * @param limiteMemoriaPrincipal Cantidad máxima de procesos permitidos en RAM.
      */
     public GestorMemoria(int limiteMemoriaPrincipal) {
-        this.colaListos = new ThreadSafeQueue();
-        this.colaBloqueados = new ThreadSafeQueue();
-        this.colaListosSuspendidos = new ThreadSafeQueue();
-        this.colaBloqueadosSuspendidos = new ThreadSafeQueue();
+        // Colas intrusivas: un PCB vive en una sola cola a la vez, así que mover
+        // procesos entre estados reutiliza su propio nodo y no reserva memoria
+        this.colaListos = new ThreadSafeQueue(true);
+        this.colaBloqueados = new ThreadSafeQueue(true);
+        this.colaListosSuspendidos = new ThreadSafeQueue(true);
+        this.colaBloqueadosSuspendidos = new ThreadSafeQueue(true);
+        this.bandejaAdmision = new ColaLockFree();
+        this.bandejaDesbloqueo = new ColaLockFree();
+        this.desbloqueosAdelantados = new ProcessControlBlock[4];
+        this.cantidadAdelantados = 0;
         
         this.limiteMemoriaPrincipal = limiteMemoriaPrincipal;
         this.procesosEnMemoriaActual = 0;
         this.gestorMutex = new Semaphore(1); // Exclusión mutua estricta
     }
 
+    /**
+     * Conecta el reloj con el que se fija el ciclo de llegada de cada proceso admitido.
+     * @param reloj
+     */
+    public void setRelojSistema(RelojSistema reloj) {
+        this.reloj = reloj;
+    }
+
+    /**
+     * Registra la acción que despierta al planificador cuando llega un proceso a la bandeja.
+     * @param aviso
+     */
+    public void setAvisoPlanificador(Runnable aviso) {
+        this.avisoPlanificador = aviso;
+    }
+
+    /**
+     * Conecta el monitor que vigila los deadlines de los procesos admitidos.
+     * @param monitor
+     */
+    public void setMonitorDeadlines(MonitorDeadlines monitor) {
+        this.monitorDeadlines = monitor;
+    }
+
+    /**
+     * Conecta el control de admisión al que se devuelve la demanda de cada proceso retirado.
+     * @param control
+     */
+    public void setControlAdmision(ControlAdmision control) {
+        this.controlAdmision = control;
+    }
+
+    public ControlAdmision getControlAdmision() {
+        return controlAdmision;
+    }
+
     /**
      * Evalúa la admisión de un nuevo proceso. Si hay espacio en memoria,
      * va a Listos. Si la memoria está llena (Saturación), hace Swap Out
@@ -51,18 +117,7 @@ public class GestorMemoria {
     public void admitirNuevoProceso(ProcessControlBlock pcb) {
         try {
             gestorMutex.acquire(); // Sección crítica: evaluando y modificando nivel de memoria
-            
-            if (procesosEnMemoriaActual < limiteMemoriaPrincipal) {
-                // Hay espacio en RAM: Entra directamente a Listo
-                pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
-                colaListos.encolar(pcb);
-                procesosEnMemoriaActual++;
-            } else {
-                // Memoria Saturada (Swap Out): Se suspende por falta de RAM
-                pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO_SUSPENDIDO);
-                colaListosSuspendidos.encolar(pcb);
-            }
-            
+            admitirConMutexTomado(pcb);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Interrupción al admitir nuevo proceso: " + e.getMessage());
@@ -71,15 +126,86 @@ public class GestorMemoria {
         }
     }
 
+    /**
+     * Deposita un proceso en la bandeja de admisión sin tomar ningún semáforo.
+     * Pensado para productores masivos (inyector, generador de estrés): el
+     * Planificador lo admitirá en lote en su próxima pasada.
+     * @param pcb Bloque de Control de Proceso entrante.
+     */
+    public void solicitarAdmision(ProcessControlBlock pcb) {
+        bandejaAdmision.encolar(pcb);
+        Runnable aviso = avisoPlanificador;
+        if (aviso != null) {
+            aviso.run();
+        }
+    }
+
+    /**
+     * Admite en lote todos los procesos pendientes en la bandeja, tomando el
+     * Mutex del gestor una sola vez.
+     * @return Cantidad de procesos admitidos.
+     */
+    public int procesarAdmisionesPendientes() {
+        if (bandejaAdmision.estaVacia()) {
+            return 0;
+        }
+        int admitidos = 0;
+        try {
+            gestorMutex.acquire();
+            ProcessControlBlock pcb;
+            while ((pcb = bandejaAdmision.desencolar()) != null) {
+                admitirConMutexTomado(pcb);
+                admitidos++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al admitir procesos en lote: " + e.getMessage());
+        } finally {
+            gestorMutex.release();
+        }
+        return admitidos;
+    }
+
+    /**
+     * Regla de admisión propiamente dicha. Debe llamarse con gestorMutex adquirido.
+     */
+    private void admitirConMutexTomado(ProcessControlBlock pcb) {
+        // El deadline absoluto se fija una sola vez, al llegar al sistema
+        // (el control de admisión ya lo fijó si el proceso pasó por él)
+        if (!pcb.isLlegadaRegistrada()) {
+            pcb.registrarLlegada(reloj != null ? reloj.getCicloGlobal() : 0);
+        }
+        if (monitorDeadlines != null) {
+            // Desde la admisión el deadline corre en todas las colas, no solo en la CPU
+            monitorDeadlines.registrar(pcb);
+        }
+        if (procesosEnMemoriaActual < limiteMemoriaPrincipal) {
+            // Hay espacio en RAM: Entra directamente a Listo
+            pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+            colaListos.encolar(pcb);
+            procesosEnMemoriaActual++;
+        } else {
+            // Memoria Saturada (Swap Out): Se suspende por falta de RAM
+            pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO_SUSPENDIDO);
+            colaListosSuspendidos.encolar(pcb);
+        }
+    }
+
     /**
      * Recibe un proceso desde la CPU (asumimos que cede su ejecución) y
      * lo encola en Bloqueados. (Sigue estando en Memoria Principal).
+     * Si su E/S ya terminó (el aviso llegó antes que el bloqueo), vuelve a Listos.
      * * @param pcb Proceso a bloquear.
      */
     public void bloquearProceso(ProcessControlBlock pcb) {
         try {
             gestorMutex.acquire();
             // El proceso sigue en RAM, por lo que procesosEnMemoriaActual NO disminuye
+            if (cancelarAdelantado(pcb)) {
+                pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+                colaListos.encolar(pcb);
+                return;
+            }
             pcb.setEstado(ProcessControlBlock.EstadoProceso.BLOQUEADO);
             colaBloqueados.encolar(pcb);
         } catch (InterruptedException e) {
@@ -90,6 +216,133 @@ public class GestorMemoria {
         }
     }
 
+    /**
+     * Devuelve a Listos un proceso cuya E/S terminó. Si fue suspendido mientras
+     * esperaba, pasa a Listos-Suspendidos (sigue fuera de la RAM).
+     * @param pcb Proceso que completó su E/S.
+     * @return true si el proceso estaba bloqueado.
+     */
+    public boolean desbloquearProceso(ProcessControlBlock pcb) {
+        boolean desbloqueado = false;
+        try {
+            gestorMutex.acquire();
+            desbloqueado = desbloquear(pcb);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al desbloquear proceso: " + e.getMessage());
+        } finally {
+            gestorMutex.release();
+        }
+        return desbloqueado;
+    }
+
+    /**
+     * Deposita un proceso cuya E/S terminó sin tomar ningún semáforo. Lo usa el
+     * hilo del reloj: el Planificador lo devuelve a Listos en su próxima pasada.
+     * @param pcb Proceso que completó su E/S.
+     */
+    public void solicitarDesbloqueo(ProcessControlBlock pcb) {
+        bandejaDesbloqueo.encolar(pcb);
+        Runnable aviso = avisoPlanificador;
+        if (aviso != null) {
+            aviso.run();
+        }
+    }
+
+    /**
+     * Entrega en lote las E/S depositadas con solicitarDesbloqueo(): una sola
+     * adquisición del semáforo del gestor para todos los procesos. Un proceso cuyo
+     * bloqueo todavía no se aplicó queda anotado y bloquearProceso() lo devuelve
+     * directo a Listos.
+     * @return Cuántos procesos volvieron a Listos (o a Listos-Suspendidos).
+     */
+    public int procesarDesbloqueosPendientes() {
+        if (bandejaDesbloqueo.estaVacia()) {
+            return 0;
+        }
+        int desbloqueados = 0;
+        try {
+            gestorMutex.acquire();
+            ProcessControlBlock pcb;
+            while ((pcb = bandejaDesbloqueo.desencolar()) != null) {
+                if (desbloquear(pcb)) {
+                    desbloqueados++;
+                } else {
+                    anotarAdelantado(pcb);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al desbloquear procesos: " + e.getMessage());
+        } finally {
+            gestorMutex.release();
+        }
+        return desbloqueados;
+    }
+
+    /**
+     * Debe llamarse con gestorMutex adquirido.
+     */
+    private boolean desbloquear(ProcessControlBlock pcb) {
+        if (colaBloqueados.extraer(pcb)) {
+            pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+            colaListos.encolar(pcb);
+            return true;
+        }
+        if (colaBloqueadosSuspendidos.extraer(pcb)) {
+            pcb.setEstado(ProcessControlBlock.EstadoProceso.LISTO_SUSPENDIDO);
+            colaListosSuspendidos.encolar(pcb);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Debe llamarse con gestorMutex adquirido.
+     */
+    private boolean cancelarAdelantado(ProcessControlBlock pcb) {
+        for (int i = 0; i < cantidadAdelantados; i++) {
+            if (desbloqueosAdelantados[i] == pcb) {
+                desbloqueosAdelantados[i] = desbloqueosAdelantados[--cantidadAdelantados];
+                desbloqueosAdelantados[cantidadAdelantados] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void anotarAdelantado(ProcessControlBlock pcb) {
+        if (cantidadAdelantados == desbloqueosAdelantados.length) {
+            ProcessControlBlock[] mayor = new ProcessControlBlock[desbloqueosAdelantados.length * 2];
+            System.arraycopy(desbloqueosAdelantados, 0, mayor, 0, cantidadAdelantados);
+            desbloqueosAdelantados = mayor;
+        }
+        desbloqueosAdelantados[cantidadAdelantados++] = pcb;
+    }
+
+    /**
+     * Libera la memoria de un proceso terminado y deja de vigilar su deadline.
+     * @param terminado Proceso que acaba de finalizar.
+     */
+    public void liberarMemoria(ProcessControlBlock terminado) {
+        descartarProceso(terminado);
+        liberarMemoria();
+    }
+
+    /**
+     * Da de baja a un proceso que sale del sistema sin ocupar RAM (ej. abortado
+     * mientras estaba suspendido): deja de vigilar su deadline y devuelve su demanda.
+     * @param pcb
+     */
+    public void descartarProceso(ProcessControlBlock pcb) {
+        if (monitorDeadlines != null) {
+            monitorDeadlines.retirar(pcb);
+        }
+        if (controlAdmision != null) {
+            controlAdmision.retirar(pcb);
+        }
+    }
+
     /**
      * Disminuye la ocupación de la memoria principal (usualmente llamado cuando
      * un proceso en RAM Termina). Además, evalúa si es posible hacer "Swap In" 
@@ -107,16 +360,15 @@ public class GestorMemoria {
             if (procesosEnMemoriaActual < limiteMemoriaPrincipal) {
                 
                 // Prioridad 1: Traer de Listo-Suspendido a Listo
-                if (colaListosSuspendidos.obtenerTamanoSeguro() > 0) {
-                    ProcessControlBlock pcbSuspendido = colaListosSuspendidos.desencolar();
-                    if (pcbSuspendido != null) {
-                        pcbSuspendido.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
-                        colaListos.encolar(pcbSuspendido);
-                        procesosEnMemoriaActual++;
-                    }
+                // Vacuidad sin bloqueo; desencolar ya retorna null si otro hilo se adelantó
+                ProcessControlBlock pcbSuspendido = colaListosSuspendidos.estaVacia() ? null : colaListosSuspendidos.desencolar();
+                if (pcbSuspendido != null) {
+                    pcbSuspendido.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+                    colaListos.encolar(pcbSuspendido);
+                    procesosEnMemoriaActual++;
                 } 
                 // Prioridad 2: Traer de Bloqueado-Suspendido a Bloqueado (Si aplica en el modelo)
-                else if (colaBloqueadosSuspendidos.obtenerTamanoSeguro() > 0) {
+                else if (!colaBloqueadosSuspendidos.estaVacia()) {
                     ProcessControlBlock pcbBloqSuspendido = colaBloqueadosSuspendidos.desencolar();
                     if (pcbBloqSuspendido != null) {
                         pcbBloqSuspendido.setEstado(ProcessControlBlock.EstadoProceso.BLOQUEADO);
@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package motor;
+
+import estructuras.RuedaTemporizadores;
+import estructuras.Temporizador;
+import hardware.OyenteReloj;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+
+/**
+ * Vigilante de deadlines de todos los procesos vivos.
+ * Cada PCB admitido programa su temporizador en una RuedaTemporizadores para el
+ * ciclo siguiente a su deadline; el reloj avanza la rueda en cada pulso y los
+ * que expiran quedan marcados como vencidos, estén en la CPU o en cualquier cola.
+ * El costo por pulso no depende de cuántos procesos haya en el sistema.
+ */
+public class MonitorDeadlines implements OyenteReloj, RuedaTemporizadores.OyenteExpiracion {
+
+    private final RelojSistema reloj;
+    private final RuedaTemporizadores rueda;
+    private volatile int totalVencidos;
+
+    public MonitorDeadlines(RelojSistema reloj) {
+        this.reloj = reloj;
+        this.rueda = new RuedaTemporizadores(reloj.getCicloGlobal(), this);
+        this.totalVencidos = 0;
+    }
+
+    /**
+     * Empieza a vigilar el deadline absoluto del proceso.
+     * @param pcb Proceso recién admitido (con su llegada ya registrada).
+     */
+    public void registrar(ProcessControlBlock pcb) {
+        // Vence al completar el ciclo siguiente al límite sin haber terminado
+        rueda.programar(pcb.getTemporizadorDeadline(), pcb.getDeadlineAbsoluto() + 1);
+        reloj.acotarLote(pcb.getDeadlineAbsoluto() + 1);
+    }
+
+    /**
+     * Deja de vigilar al proceso (terminó o salió del sistema).
+     * @param pcb
+     */
+    public void retirar(ProcessControlBlock pcb) {
+        rueda.cancelar(pcb.getTemporizadorDeadline());
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        rueda.avanzarHasta(cicloGlobal);
+    }
+
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        return rueda.proximaExpiracionEstimada();
+    }
+
+    @Override
+    public void alExpirar(Temporizador temporizador, int cicloActual) {
+        ProcessControlBlock pcb = temporizador.getPcb();
+        if (!ProcessControlBlock.EstadoProceso.TERMINADO.name().equals(pcb.getEstado())) {
+            pcb.setDeadlineVencido(true);
+            totalVencidos++;
+        }
+    }
+
+    public int getTotalVencidos() {
+        return totalVencidos;
+    }
+
+    public int getProcesosVigilados() {
+        return rueda.getTamano();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package planificacion;
+
+import estructuras.OyenteCola;
+import estructuras.ThreadSafeQueue;
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Coordinador del computador multinúcleo (SMP).
+ * Crea un Planificador por Procesador, cada uno con su cola de listos y su propia
+ * instancia de política. La cola LISTOS del GestorMemoria pasa a ser la bolsa
+ * común de llegada (admisiones, fin de E/S, Swap In): cada proceso que cae en
+ * ella se reparte de inmediato al núcleo menos cargado.
+ *
+ * Reparto y robo respetan los deadlines:
+ * - Entre núcleos igual de cargados se elige el que ejecuta el proceso con el
+ *   deadline más lejano (donde el recién llegado tiene más chance de expropiar).
+ * - Un núcleo que se queda sin trabajo roba la cabeza de la cola cuyo primer
+ *   proceso tenga el deadline más cercano, es decir, el que más arriesga esperando.
+ */
+public class BalanceadorCarga implements OyenteCola {
+
+    private static final int LOTE_REPARTO = 32;
+
+    private final ThreadSafeQueue bolsaComun;
+    private final Planificador[] nucleos;
+    private final Semaphore balanceadorMutex;
+    private final ProcessControlBlock[] lote;
+
+    private volatile int procesosRepartidos;
+    private volatile int procesosRobados;
+
+    /**
+     * @param gestor Gestor de memoria compartido.
+     * @param cpus Núcleos del computador (uno por Planificador).
+     * @param fabricaPolitica Crea una instancia de política por núcleo (las políticas guardan estado).
+     */
+    public BalanceadorCarga(GestorMemoria gestor, Procesador[] cpus, Supplier<PoliticaPlanificacion> fabricaPolitica) {
+        this.bolsaComun = gestor.getCola("LISTOS");
+        this.nucleos = new Planificador[cpus.length];
+        this.balanceadorMutex = new Semaphore(1);
+        this.lote = new ProcessControlBlock[LOTE_REPARTO];
+        this.procesosRepartidos = 0;
+        this.procesosRobados = 0;
+
+        for (int i = 0; i < cpus.length; i++) {
+            nucleos[i] = new Planificador(gestor, cpus[i], fabricaPolitica.get(), new ThreadSafeQueue(true));
+            nucleos[i].setBalanceador(this);
+        }
+        // Cualquier núcleo puede admitir la bandeja; basta con despertar al primero
+        gestor.setAvisoPlanificador(nucleos[0]::notificarEvento);
+        bolsaComun.agregarOyente(this);
+    }
+
+    /**
+     * Registra todos los núcleos y sus planificadores en el reloj compartido.
+     * @param reloj
+     */
+    public void conectarReloj(RelojSistema reloj) {
+        for (Planificador nucleo : nucleos) {
+            reloj.agregarProcesador(nucleo.getProcesador());
+            reloj.agregarOyente(nucleo);
+        }
+    }
+
+    /**
+     * Arranca un hilo de planificación por núcleo.
+     */
+    public void iniciar() {
+        for (Planificador nucleo : nucleos) {
+            new Thread(nucleo, "Hilo-Planificador-" + nucleo.getProcesador().getIdNucleo()).start();
+        }
+    }
+
+    public void detener() {
+        for (Planificador nucleo : nucleos) {
+            nucleo.detenerPlanificador();
+        }
+    }
+
+    /**
+     * Cambia la política de todos los núcleos (una instancia nueva por núcleo).
+     * @param fabricaPolitica
+     */
+    public void setPolitica(Supplier<PoliticaPlanificacion> fabricaPolitica) {
+        for (Planificador nucleo : nucleos) {
+            nucleo.setPolitica(fabricaPolitica.get());
+        }
+    }
+
+    @Override
+    public void alEncolar(ThreadSafeQueue cola, ProcessControlBlock pcb) {
+        repartir();
+    }
+
+    /**
+     * Vacía la bolsa común enviando cada proceso al núcleo menos cargado.
+     */
+    public void repartir() {
+        if (bolsaComun.estaVacia()) {
+            return;
+        }
+        try {
+            balanceadorMutex.acquire();
+            int cantidad;
+            while ((cantidad = bolsaComun.drenar(lote, LOTE_REPARTO)) > 0) {
+                for (int i = 0; i < cantidad; i++) {
+                    elegirDestino().getColaListos().encolar(lote[i]);
+                    lote[i] = null;
+                    procesosRepartidos++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al repartir procesos entre núcleos: " + e.getMessage());
+        } finally {
+            balanceadorMutex.release();
+        }
+    }
+
+    /**
+     * Roba un proceso en espera de otro núcleo y lo deja en la cola del ladrón.
+     * Se invoca desde el planificador de un núcleo a punto de quedar ocioso.
+     * @param ladron Planificador del núcleo sin trabajo.
+     * @return true si consiguió un proceso.
+     */
+    boolean robarPara(Planificador ladron) {
+        boolean robado = false;
+        try {
+            balanceadorMutex.acquire();
+            Planificador victima = null;
+            long mejorDeadline = Long.MAX_VALUE;
+            int mejorTamano = 0;
+            for (Planificador nucleo : nucleos) {
+                if (nucleo == ladron) {
+                    continue;
+                }
+                ThreadSafeQueue cola = nucleo.getColaListos();
+                int tamano = cola.obtenerTamanoSeguro();
+                // Con la CPU libre y un solo proceso, su dueño lo tomará enseguida
+                if (tamano == 0 || (tamano == 1 && nucleo.getProcesador().getProcesoActualSeguro() == null)) {
+                    continue;
+                }
+                ProcessControlBlock cabeza = cola.verPrimero();
+                if (cabeza == null) {
+                    continue;
+                }
+                long deadline = cabeza.getDeadlineEfectivo();
+                if (victima == null || deadline < mejorDeadline || (deadline == mejorDeadline && tamano > mejorTamano)) {
+                    victima = nucleo;
+                    mejorDeadline = deadline;
+                    mejorTamano = tamano;
+                }
+            }
+            if (victima != null) {
+                ProcessControlBlock pcb = victima.getColaListos().desencolar();
+                if (pcb != null) {
+                    ladron.getColaListos().encolar(pcb);
+                    procesosRobados++;
+                    robado = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al robar trabajo entre núcleos: " + e.getMessage());
+        } finally {
+            balanceadorMutex.release();
+        }
+        return robado;
+    }
+
+    /**
+     * Núcleo con menos carga (cola + proceso en CPU). Debe llamarse con el mutex tomado.
+     */
+    private Planificador elegirDestino() {
+        Planificador mejor = nucleos[0];
+        int mejorCarga = Integer.MAX_VALUE;
+        long mejorDeadlineEnCpu = Long.MIN_VALUE;
+        for (Planificador nucleo : nucleos) {
+            ProcessControlBlock enCpu = nucleo.getProcesador().getProcesoActualSeguro();
+            int carga = nucleo.getColaListos().obtenerTamanoSeguro() + (enCpu != null ? 1 : 0);
+            long deadlineEnCpu = (enCpu != null) ? enCpu.getDeadlineEfectivo() : Long.MAX_VALUE;
+            if (carga < mejorCarga || (carga == mejorCarga && deadlineEnCpu > mejorDeadlineEnCpu)) {
+                mejor = nucleo;
+                mejorCarga = carga;
+                mejorDeadlineEnCpu = deadlineEnCpu;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * @return Copia del arreglo de planificadores (uno por núcleo, en orden).
+     */
+    public Planificador[] getNucleos() {
+        return nucleos.clone();
+    }
+
+    public int getProcesosRepartidos() {
+        return procesosRepartidos;
+    }
+
+    public int getProcesosRobados() {
+        return procesosRobados;
+    }
+}
\ No newline at end of file
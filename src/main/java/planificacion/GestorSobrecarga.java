@@ -0,0 +1,386 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package planificacion;
+
+import estructuras.OyenteCola;
+import estructuras.RuedaTemporizadores;
+import estructuras.Temporizador;
+import estructuras.ThreadSafeQueue;
+import hardware.OyenteReloj;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
+import motor.GestorMemoria;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gestor de Sobrecarga (load shedding consciente de deadlines).
+ * Trabaja junto al Planificador: detecta procesos en espera que ya no pueden
+ * cumplir su deadline (laxitud negativa) y los retira del camino de los que
+ * todavía pueden, evitando el efecto dominó de EDF bajo ráfagas.
+ *
+ * Cada vez que un proceso entra a una cola vigilada se programa su temporizador
+ * de holgura en una RuedaTemporizadores para el ciclo siguiente a su último
+ * instante de arranque posible (deadline absoluto - instrucciones restantes).
+ * Si al vencer sigue esperando y su laxitud es negativa, se aplica la acción
+ * configurada; si avanzó entretanto, el temporizador se reprograma.
+ *
+ * La acción no se aplica en el hilo del reloj: el proceso se entrega sin bloqueo
+ * al Planificador de un núcleo vigilado (vigilarPlanificador), que lo retira de
+ * su cola y le aplica la acción en su próxima pasada. Si está en la CPU, ese
+ * Planificador lo desaloja primero. Uno bloqueado se vuelve a evaluar cuando
+ * regrese a una cola.
+ */
+public class GestorSobrecarga implements OyenteReloj, OyenteCola, RuedaTemporizadores.OyenteExpiracion {
+
+    /**
+     * Qué hacer con un proceso que ya no puede cumplir su deadline.
+     */
+    public enum AccionSobrecarga {
+        ABORTAR,   // Se termina sin ejecutar el resto y libera su memoria
+        DEGRADAR,  // Sigue en su cola, pero detrás de todo proceso factible (solo en colas
+                   // ordenadas por prioridad, nivel, deadline, laxitud o restantes: en FIFO solo va al final)
+        DIFERIR    // Sale de Listos y vuelve solo cuando la cola queda vacía
+    }
+
+    private final GestorMemoria gestorMemoria;
+    private final RelojSistema reloj;
+    private final RuedaTemporizadores rueda;
+    private final ThreadSafeQueue colaListosSuspendidos;
+    private final ThreadSafeQueue colaDiferidos;
+    private final Semaphore registroMutex;
+
+    private volatile AccionSobrecarga accion;
+    private volatile ThreadSafeQueue[] colasVigiladas;
+    private volatile Planificador[] planificadores;
+
+    // Trabajo descartado (lo escriben el hilo del reloj y los planificadores)
+    private final AtomicInteger procesosAbortados;
+    private final AtomicInteger procesosDegradados;
+    private final AtomicInteger procesosDiferidos;
+    private final AtomicLong instruccionesDescartadas;
+
+    /**
+     * Vigila la cola LISTOS y la de Listos-Suspendidos del gestor.
+     * @param gestor Gestor de memoria (dueño de las colas).
+     * @param reloj Reloj del sistema (se registra como oyente).
+     * @param accion Acción inicial ante procesos infactibles.
+     */
+    public GestorSobrecarga(GestorMemoria gestor, RelojSistema reloj, AccionSobrecarga accion) {
+        this.gestorMemoria = gestor;
+        this.reloj = reloj;
+        this.rueda = new RuedaTemporizadores(reloj.getCicloGlobal(), this);
+        this.colaListosSuspendidos = gestor.getCola("LISTOS_SUSPENDIDOS");
+        this.colaDiferidos = new ThreadSafeQueue(true);
+        this.registroMutex = new Semaphore(1);
+        this.accion = accion;
+        this.colasVigiladas = new ThreadSafeQueue[0];
+        this.planificadores = new Planificador[0];
+        this.procesosAbortados = new AtomicInteger(0);
+        this.procesosDegradados = new AtomicInteger(0);
+        this.procesosDiferidos = new AtomicInteger(0);
+        this.instruccionesDescartadas = new AtomicLong(0);
+
+        vigilarCola(gestor.getCola("LISTOS"));
+        colaListosSuspendidos.agregarOyente(this);
+        reloj.agregarOyente(this);
+    }
+
+    /**
+     * Agrega una cola de listos a vigilar (ej. la de cada núcleo en SMP).
+     * @param colaListos
+     */
+    public void vigilarCola(ThreadSafeQueue colaListos) {
+        try {
+            registroMutex.acquire();
+            ThreadSafeQueue[] nuevas = new ThreadSafeQueue[colasVigiladas.length + 1];
+            System.arraycopy(colasVigiladas, 0, nuevas, 0, colasVigiladas.length);
+            nuevas[colasVigiladas.length] = colaListos;
+            this.colasVigiladas = nuevas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar una cola en el gestor de sobrecarga.");
+            return;
+        } finally {
+            registroMutex.release();
+        }
+        colaListos.agregarOyente(this);
+    }
+
+    /**
+     * Vigila también al proceso en la CPU del núcleo (y su cola de listos, si no lo estaba).
+     * @param planificador
+     */
+    public void vigilarPlanificador(Planificador planificador) {
+        boolean colaVigilada = false;
+        try {
+            registroMutex.acquire();
+            Planificador[] nuevos = new Planificador[planificadores.length + 1];
+            System.arraycopy(planificadores, 0, nuevos, 0, planificadores.length);
+            nuevos[planificadores.length] = planificador;
+            this.planificadores = nuevos;
+            for (ThreadSafeQueue cola : colasVigiladas) {
+                colaVigilada |= cola == planificador.getColaListos();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción al registrar un núcleo en el gestor de sobrecarga.");
+            return;
+        } finally {
+            registroMutex.release();
+        }
+        if (!colaVigilada) {
+            vigilarCola(planificador.getColaListos());
+        }
+        planificador.setGestorSobrecarga(this);
+    }
+
+    public void setAccion(AccionSobrecarga accion) {
+        this.accion = accion;
+    }
+
+    public AccionSobrecarga getAccion() {
+        return accion;
+    }
+
+    @Override
+    public void alEncolar(ThreadSafeQueue cola, ProcessControlBlock pcb) {
+        if (pcb.isDegradado()) {
+            return; // Ya fue tratado: corre en segundo plano sin más vigilancia
+        }
+        // Último arranque posible = deadline - restantes; un ciclo después ya es infactible
+        int ultimoArranque = pcb.getDeadlineAbsoluto() - pcb.getInstruccionesRestantes();
+        rueda.programar(pcb.getTemporizadorHolgura(), ultimoArranque + 1);
+        reloj.acotarLote(ultimoArranque + 1);
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        rueda.avanzarHasta(cicloGlobal);
+        reincorporarDiferido();
+    }
+
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        if (!colaDiferidos.estaVacia()) {
+            return cicloActual + 1; // Se reincorporan apenas una cola vigilada quede vacía
+        }
+        return rueda.proximaExpiracionEstimada();
+    }
+
+    @Override
+    public void alExpirar(Temporizador temporizador, int cicloActual) {
+        ProcessControlBlock pcb = temporizador.getPcb();
+        String estado = pcb.getEstado();
+        if (ProcessControlBlock.EstadoProceso.TERMINADO.name().equals(estado) || pcb.isDegradado()) {
+            return;
+        }
+
+        if (pcb.getLaxitud(cicloActual) >= 0) {
+            // Avanzó desde que se programó: su último arranque posible se movió
+            int ultimoArranque = pcb.getDeadlineAbsoluto() - pcb.getInstruccionesRestantes();
+            rueda.programar(temporizador, ultimoArranque + 1);
+            return;
+        }
+
+        Planificador nucleo = planificadorEjecutando(pcb);
+        if (nucleo != null) {
+            nucleo.expulsar(pcb); // Lo desaloja su planificador y vuelve por descartarDesalojado()
+            return;
+        }
+        if (estaEsperando(pcb)) {
+            Planificador dueno = planificadorDe(pcb);
+            if (dueno != null) {
+                dueno.descartar(pcb); // Vuelve por descartarEnEspera() en el hilo del planificador
+            } else {
+                // Sin núcleos vigilados no hay otro hilo que pueda aplicarla
+                descartarEnEspera(pcb);
+            }
+        }
+        // Bloqueado: alEncolar lo vuelve a programar cuando regrese a una cola
+    }
+
+    /**
+     * Aplica la acción a un proceso infactible que seguía esperando cuando venció su
+     * holgura. Corre en el hilo del planificador que lo recibió con descartar().
+     * @param pcb Proceso infactible.
+     */
+    void descartarEnEspera(ProcessControlBlock pcb) {
+        if (pcb.isDegradado()) {
+            return; // Otro núcleo ya lo trató
+        }
+        ThreadSafeQueue origen = extraerDeColaEnEspera(pcb);
+        if (origen != null) {
+            aplicarAccion(pcb, origen);
+            return;
+        }
+        // Se despachó mientras esperaba su turno: sigue siendo infactible en la CPU
+        Planificador nucleo = planificadorEjecutando(pcb);
+        if (nucleo != null) {
+            nucleo.expulsar(pcb);
+        }
+    }
+
+    /**
+     * Aplica la acción a un proceso infactible que su planificador acaba de desalojar.
+     * Corre en el hilo de ese planificador.
+     * @param pcb Proceso desalojado (en estado LISTO).
+     * @param colaListos Cola de listos del núcleo.
+     */
+    void descartarDesalojado(ProcessControlBlock pcb, ThreadSafeQueue colaListos) {
+        aplicarAccion(pcb, colaListos);
+    }
+
+    private void aplicarAccion(ProcessControlBlock pcb, ThreadSafeQueue origen) {
+        boolean enMemoria = origen != colaListosSuspendidos;
+        switch (accion) {
+            case ABORTAR -> {
+                instruccionesDescartadas.addAndGet(pcb.getInstruccionesRestantes());
+                procesosAbortados.incrementAndGet();
+                pcb.setEstado(ProcessControlBlock.EstadoProceso.TERMINADO);
+                if (enMemoria) {
+                    gestorMemoria.liberarMemoria(pcb);
+                } else {
+                    gestorMemoria.descartarProceso(pcb);
+                }
+                // Cuenta como deadline perdido en la telemetría
+                gui.DashboardGUI.registrarProcesoTerminadoGlobal(pcb);
+            }
+            case DEGRADAR -> {
+                procesosDegradados.incrementAndGet();
+                pcb.setDegradado(true);
+                liberarDemanda(pcb);
+                origen.encolar(pcb); // Reinsertar con la clave de fondo
+            }
+            case DIFERIR -> {
+                procesosDiferidos.incrementAndGet();
+                pcb.setDegradado(true);
+                liberarDemanda(pcb);
+                colaDiferidos.encolar(pcb);
+            }
+        }
+    }
+
+    /**
+     * Un proceso degradado o diferido solo usa la CPU que sobra: su demanda deja de
+     * contar para la admisión de los que todavía pueden cumplir.
+     */
+    private void liberarDemanda(ProcessControlBlock pcb) {
+        ControlAdmision control = gestorMemoria.getControlAdmision();
+        if (control != null) {
+            control.retirar(pcb);
+        }
+    }
+
+    /**
+     * Retira al proceso de la cola de espera en la que esté.
+     * @return La cola de la que salió, o null si no estaba esperando.
+     */
+    private ThreadSafeQueue extraerDeColaEnEspera(ProcessControlBlock pcb) {
+        if (ProcessControlBlock.EstadoProceso.LISTO_SUSPENDIDO.name().equals(pcb.getEstado())) {
+            return colaListosSuspendidos.extraer(pcb) ? colaListosSuspendidos : null;
+        }
+        if (!ProcessControlBlock.EstadoProceso.LISTO.name().equals(pcb.getEstado())) {
+            return null;
+        }
+        for (ThreadSafeQueue cola : colasVigiladas) {
+            if (cola.extraer(pcb)) {
+                return cola;
+            }
+        }
+        return null;
+    }
+
+    private boolean estaEsperando(ProcessControlBlock pcb) {
+        String estado = pcb.getEstado();
+        return ProcessControlBlock.EstadoProceso.LISTO.name().equals(estado)
+                || ProcessControlBlock.EstadoProceso.LISTO_SUSPENDIDO.name().equals(estado);
+    }
+
+    /**
+     * Núcleo dueño de la cola de listos en la que espera el proceso; el primero
+     * vigilado si espera en otra cola (ej. Listos-Suspendidos).
+     */
+    private Planificador planificadorDe(ProcessControlBlock pcb) {
+        Planificador[] nucleos = this.planificadores;
+        if (nucleos.length == 0) {
+            return null;
+        }
+        for (Planificador planificador : nucleos) {
+            if (planificador.getColaListos().obtenerPorId(pcb.getId()) == pcb) {
+                return planificador;
+            }
+        }
+        return nucleos[0];
+    }
+
+    private Planificador planificadorEjecutando(ProcessControlBlock pcb) {
+        if (!ProcessControlBlock.EstadoProceso.EJECUCION.name().equals(pcb.getEstado())) {
+            return null;
+        }
+        for (Planificador planificador : planificadores) {
+            if (planificador.getProcesador().getProcesoActualSeguro() == pcb) {
+                return planificador;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve un proceso diferido a la primera cola vigilada que esté vacía.
+     */
+    private void reincorporarDiferido() {
+        if (colaDiferidos.estaVacia()) {
+            return;
+        }
+        for (ThreadSafeQueue cola : colasVigiladas) {
+            if (cola.estaVacia()) {
+                ProcessControlBlock pcb = colaDiferidos.desencolar();
+                if (pcb != null) {
+                    cola.encolar(pcb);
+                }
+                return;
+            }
+        }
+    }
+
+    public int getProcesosAbortados() {
+        return procesosAbortados.get();
+    }
+
+    public int getProcesosDegradados() {
+        return procesosDegradados.get();
+    }
+
+    public int getProcesosDiferidos() {
+        return procesosDiferidos.get();
+    }
+
+    public long getInstruccionesDescartadas() {
+        return instruccionesDescartadas.get();
+    }
+
+    public ThreadSafeQueue getColaDiferidos() {
+        return colaDiferidos;
+    }
+
+    /**
+     * @return Procesos tratados hasta ahora con cualquiera de las acciones.
+     */
+    public int getTotalDescartados() {
+        return procesosAbortados.get() + procesosDegradados.get() + procesosDiferidos.get();
+    }
+
+    /**
+     * @return Resumen legible del trabajo descartado, para el log de la interfaz.
+     */
+    public String getResumen() {
+        return "Sobrecarga [" + accion + "] abortados=" + procesosAbortados.get()
+                + " (" + instruccionesDescartadas.get() + " instr.), degradados=" + procesosDegradados.get()
+                + ", diferidos=" + procesosDiferidos.get();
+    }
+}
\ No newline at end of file
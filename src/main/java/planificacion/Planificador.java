@@ -4,9 +4,13 @@
  */
 package planificacion;
 
+import hardware.OyenteReloj;
 import hardware.Procesador;
+import motor.ControlAdmision;
 import motor.GestorMemoria;
 import modelos.ProcessControlBlock;
+import estructuras.ColaLockFree;
+import estructuras.OyenteCola;
 import estructuras.ThreadSafeQueue;
 import java.util.concurrent.Semaphore;
 
@@ -14,95 +18,391 @@ import java.util.concurrent.Semaphore;
  * Motor del Planificador (Scheduler Engine).
  * Corre en su propio hilo y orquesta el Cambio de Contexto (Context Switch)
  * evaluando dinámicamente la política actual.
+ *
+ * Es dirigido por eventos: duerme sobre un semáforo de señal y solo despierta
+ * cuando algo puede cambiar la decisión (pulso de reloj, proceso nuevo en Listos,
+ * admisión pendiente, fin de E/S, retorno de interrupción o cambio de política).
+ * Mientras no hay eventos no consume CPU del host.
+ *
+ * En modo multinúcleo hay un Planificador por Procesador, cada uno con su propia
+ * cola de listos y política; el BalanceadorCarga les reparte trabajo y, cuando
+ * un núcleo se queda sin procesos, le permite robarlos de otro.
  */
-public class Planificador implements Runnable {
+public class Planificador implements Runnable, OyenteReloj, OyenteCola {
 
     private PoliticaPlanificacion politicaActual;
     private final GestorMemoria gestorMemoria;
     private final Procesador cpu;
+    private final ThreadSafeQueue colaListos;
     private volatile boolean planificadorActivo;
     private final Semaphore planificadorMutex;
 
+    // Señal de eventos pendientes: varios avisos antes de despertar cuentan como uno
+    private final Semaphore senalEventos;
+    private volatile Thread hiloPlanificador;
+    private volatile int ultimoCiclo;
+
+    // Solo en multinúcleo: fuente de trabajo robado cuando la cola propia se vacía
+    private BalanceadorCarga balanceador;
+
+    // Procesos infactibles a sacar de la CPU, depositados sin bloqueo por el GestorSobrecarga
+    private final ColaLockFree expulsiones;
+
+    // Procesos atrapados por E/S en el hilo del reloj, a bloquear en la próxima pasada
+    private final ColaLockFree bloqueosIO;
+
+    // Procesos infactibles en espera, a los que el GestorSobrecarga pide aplicar su acción
+    private final ColaLockFree descartes;
+    private volatile GestorSobrecarga gestorSobrecarga;
+
+    // Métricas del núcleo (las escribe únicamente el hilo de este planificador)
+    private volatile int procesosTerminados;
+    private volatile int deadlinesCumplidos;
+
     public Planificador(GestorMemoria gestor, Procesador cpu, PoliticaPlanificacion politicaInicial) {
+        this(gestor, cpu, politicaInicial, gestor.getCola("LISTOS"));
+    }
+
+    /**
+     * Planificador de un núcleo con cola de listos propia (SMP).
+     * @param gestor Gestor de memoria compartido por todos los núcleos.
+     * @param cpu Núcleo que gobierna este planificador.
+     * @param politicaInicial Instancia de política exclusiva de este núcleo.
+     * @param colaListos Cola de listos del núcleo.
+     */
+    public Planificador(GestorMemoria gestor, Procesador cpu, PoliticaPlanificacion politicaInicial, ThreadSafeQueue colaListos) {
         this.gestorMemoria = gestor;
         this.cpu = cpu;
+        this.colaListos = colaListos;
         this.politicaActual = politicaInicial;
         this.planificadorActivo = false;
         this.planificadorMutex = new Semaphore(1);
+        this.senalEventos = new Semaphore(0);
+        this.expulsiones = new ColaLockFree();
+        this.bloqueosIO = new ColaLockFree();
+        this.descartes = new ColaLockFree();
+        this.procesosTerminados = 0;
+        this.deadlinesCumplidos = 0;
+        this.politicaActual.alActivar(colaListos);
+        aplicarPruebaAdmision();
+
+        // Fuentes de eventos propias del motor (el reloj se conecta en el arranque)
+        this.colaListos.agregarOyente(this);
+        this.gestorMemoria.setAvisoPlanificador(this::notificarEvento);
     }
 
     public void setPolitica(PoliticaPlanificacion nuevaPolitica) {
         try {
             planificadorMutex.acquire();
             this.politicaActual = nuevaPolitica;
+            // La nueva política reorganiza la cola de listos a su criterio (FIFO o montículo)
+            this.politicaActual.alActivar(colaListos);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Interrupción al cambiar la política de planificación.");
         } finally {
             planificadorMutex.release();
         }
+        aplicarPruebaAdmision();
+        notificarEvento();
+    }
+
+    /**
+     * La prueba de admisión solo vale para la política que la justifica: se cambia con ella.
+     */
+    private void aplicarPruebaAdmision() {
+        ControlAdmision control = gestorMemoria.getControlAdmision();
+        if (control != null) {
+            PoliticaPlanificacion politica = this.politicaActual;
+            control.setPrueba(politica.getPruebaAdmision());
+        }
+    }
+
+    /**
+     * Despierta al planificador para que reevalúe la CPU. Puede llamarse desde
+     * cualquier hilo y no se bloquea nunca.
+     */
+    public void notificarEvento() {
+        // Si ya hay una señal pendiente no hace falta otra: la pasada verá todos los cambios
+        if (senalEventos.availablePermits() == 0) {
+            senalEventos.release();
+        }
+    }
+
+    @Override
+    public void alPulsoReloj(int cicloGlobal) {
+        this.ultimoCiclo = cicloGlobal;
+        notificarEvento();
+    }
+
+    /**
+     * Reloj sin ticks: el planificador necesita el próximo pulso si tiene una pasada
+     * pendiente o la CPU libre con trabajo a la vista; si no, cuando la política
+     * pueda decidir una expropiación por tiempo.
+     */
+    @Override
+    public int proximoCicloDeInteres(int cicloActual) {
+        if (senalEventos.availablePermits() > 0 || !planificadorMutex.tryAcquire()) {
+            return cicloActual + 1; // Hay (o está corriendo) una pasada
+        }
+        try {
+            ProcessControlBlock enCpu = cpu.getProcesoActualSeguro();
+            if (enCpu == null) {
+                // Un núcleo ocioso en SMP puede robar trabajo en cualquier pulso
+                return (colaListos.estaVacia() && balanceador == null) ? Integer.MAX_VALUE : cicloActual + 1;
+            }
+            return politicaActual.proximaDecision(enCpu, colaListos, cicloActual);
+        } finally {
+            planificadorMutex.release();
+        }
+    }
+
+    /**
+     * Recibe un proceso que dejó la CPU para bloquearse en E/S. No se bloquea (lo
+     * llama el hilo del reloj): la próxima pasada avisa a la política y lo pasa a
+     * Bloqueados.
+     * @param pcb Proceso atrapado por el núcleo de este planificador.
+     */
+    public void recibirBloqueo(ProcessControlBlock pcb) {
+        bloqueosIO.encolar(pcb);
+        notificarEvento();
+    }
+
+    /**
+     * Pide sacar de la CPU a un proceso que ya no puede cumplir su deadline; la
+     * próxima pasada lo desaloja y lo entrega al GestorSobrecarga. No se bloquea.
+     * @param pcb Proceso que debería estar en la CPU de este núcleo.
+     */
+    public void expulsar(ProcessControlBlock pcb) {
+        expulsiones.encolar(pcb);
+        notificarEvento();
+    }
+
+    /**
+     * Pide aplicar la acción de sobrecarga a un proceso infactible que espera en
+     * una cola; la próxima pasada lo retira y se la aplica. No se bloquea.
+     * @param pcb Proceso en espera cuya holgura venció.
+     */
+    public void descartar(ProcessControlBlock pcb) {
+        descartes.encolar(pcb);
+        notificarEvento();
+    }
+
+    @Override
+    public void alEncolar(ThreadSafeQueue cola, ProcessControlBlock pcb) {
+        // Lo que el propio planificador devuelve a Listos ya se considera en su pasada
+        if (Thread.currentThread() != hiloPlanificador) {
+            notificarEvento();
+        }
     }
 
     @Override
-    @SuppressWarnings("SleepWhileInLoop")
     public void run() {
+        this.hiloPlanificador = Thread.currentThread();
         this.planificadorActivo = true;
-        ThreadSafeQueue colaListos = gestorMemoria.getCola("LISTOS");
 
         while (planificadorActivo) {
             try {
-                // Pequeña pausa para no saturar el núcleo del host físico en el bucle infinito
-                Thread.sleep(10); 
+                // Dormir sin consumir CPU hasta el próximo evento
+                senalEventos.acquire();
+                senalEventos.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.planificadorActivo = false;
+                break;
+            }
+            if (!planificadorActivo) {
+                break;
+            }
 
+            try {
                 planificadorMutex.acquire();
-                
-                ProcessControlBlock enCpu = cpu.getProcesoActualSeguro();
-                boolean debeDesalojar = false;
-
-                if (enCpu == null) {
-                    debeDesalojar = true; // CPU libre
-                } else {
-                    debeDesalojar = politicaActual.requiereDesalojo(enCpu, colaListos);
-                }
-
-                if (debeDesalojar) {
-                    ProcessControlBlock siguiente = politicaActual.seleccionarSiguienteProceso(colaListos);
-                    
-                    // Realizar el Cambio de Contexto si hay algo que hacer
-                    if (siguiente != null || enCpu != null) {
-                        
-                        if (enCpu != null) {
-                            ProcessControlBlock desalojado = cpu.desalojarProceso();
-                            // Si no ha terminado, regresa a Listos (Preemption)
-                            if (desalojado.getPc() < desalojado.getCantidadInstrucciones()) {
-                                desalojado.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
-                                colaListos.encolar(desalojado);
-                            } else {
-                                // 1. Marcamos su estado oficial
-                                desalojado.setEstado(ProcessControlBlock.EstadoProceso.TERMINADO);
-                                // 2. Liberamos la RAM para que entren los suspendidos (Swap In)
-                                gestorMemoria.liberarMemoria();
-                                // 3. Le avisamos a la interfaz que sume un éxito
-                                gui.DashboardGUI.registrarProcesoTerminadoGlobal(desalojado);
-                            }
-                            // Nota: Si terminó, la gestión final se hace en otra etapa (ej. liberar memoria)
-                        }
-
-                        if (siguiente != null) {
-                            cpu.asignarProceso(siguiente);
-                        }
-                    }
+                try {
+                    planificar();
+                } finally {
+                    planificadorMutex.release();
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 this.planificadorActivo = false;
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una pasada de planificación en el hilo llamador. Es la forma de
+     * operar sin hilo propio (MotorEventosDiscretos): el motor la invoca como un
+     * evento más, de modo que la simulación es determinista.
+     */
+    public void planificarAhora() {
+        try {
+            planificadorMutex.acquire();
+            try {
+                planificar();
+                // Los avisos producidos por la propia pasada ya quedaron considerados
+                senalEventos.drainPermits();
             } finally {
                 planificadorMutex.release();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupción durante una pasada de planificación.");
+        }
+    }
+
+    /**
+     * Una pasada de planificación. Debe llamarse con planificadorMutex adquirido.
+     */
+    private void planificar() {
+        // Admitir en lote lo que los productores depositaron sin bloqueo
+        gestorMemoria.procesarAdmisionesPendientes();
+        // Bloqueos antes que desbloqueos: la E/S de un proceso no puede terminar antes de empezar
+        atenderBloqueosIO();
+        gestorMemoria.procesarDesbloqueosPendientes();
+        atenderDescartes();
+        politicaActual.alAvanzarTiempo(ultimoCiclo, colaListos);
+
+        if (cpu.estaSecuestrada()) {
+            return; // Una interrupción tiene la CPU: se replanifica cuando retorne
+        }
+        atenderExpulsiones();
+
+        ProcessControlBlock enCpu = cpu.getProcesoActualSeguro();
+        boolean debeDesalojar = false;
+
+        if (enCpu == null) {
+            debeDesalojar = true; // CPU libre
+        } else if (enCpu.getPc() >= enCpu.getCantidadInstrucciones()) {
+            debeDesalojar = true; // Terminó: sale sin importar si la política es expropiativa
+        } else {
+            debeDesalojar = politicaActual.requiereDesalojo(enCpu, colaListos);
+        }
+
+        if (debeDesalojar) {
+            if (balanceador != null && colaListos.estaVacia()) {
+                // Núcleo por quedar ocioso: robar trabajo a otro antes de elegir
+                balanceador.robarPara(this);
+            }
+            ProcessControlBlock siguiente = politicaActual.seleccionarSiguienteProceso(colaListos);
+
+            // Realizar el Cambio de Contexto si hay algo que hacer
+            if (siguiente != null || enCpu != null) {
+
+                if (enCpu != null) {
+                    ProcessControlBlock desalojado = cpu.desalojarProceso();
+                    // Si no ha terminado, regresa a Listos (Preemption)
+                    if (desalojado == null) {
+                        // Una interrupción se llevó el proceso entre la lectura y el desalojo
+                    } else if (desalojado.getPc() < desalojado.getCantidadInstrucciones()) {
+                        desalojado.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+                        colaListos.encolar(desalojado);
+                    } else {
+                        // 1. Marcamos su estado oficial
+                        desalojado.setEstado(ProcessControlBlock.EstadoProceso.TERMINADO);
+                        // 2. Liberamos la RAM para que entren los suspendidos (Swap In)
+                        gestorMemoria.liberarMemoria(desalojado);
+                        // 3. Le avisamos a la interfaz que sume un éxito
+                        gui.DashboardGUI.registrarProcesoTerminadoGlobal(desalojado);
+                        procesosTerminados++;
+                        if (!desalojado.isDeadlineVencido() && desalojado.cumplioDeadline()) {
+                            deadlinesCumplidos++;
+                        }
+                    }
+                }
+
+                if (siguiente == null && !colaListos.estaVacia()) {
+                    // Solo estaba el desalojado (fin de quantum): vuelve sin perder un ciclo
+                    siguiente = politicaActual.seleccionarSiguienteProceso(colaListos);
+                }
+                if (siguiente != null && !cpu.asignarProceso(siguiente)) {
+                    // La CPU no quedó libre (otro despachador se adelantó): no perder el proceso
+                    colaListos.encolar(siguiente);
+                }
+            }
+        }
+    }
+
+    /**
+     * Desaloja a los procesos pedidos con expulsar() que sigan en la CPU y se los
+     * entrega al GestorSobrecarga. Debe llamarse con planificadorMutex adquirido.
+     */
+    private void atenderExpulsiones() {
+        ProcessControlBlock pcb;
+        while ((pcb = expulsiones.desencolar()) != null) {
+            if (cpu.getProcesoActualSeguro() != pcb || pcb.getPc() >= pcb.getCantidadInstrucciones()) {
+                continue; // Ya dejó la CPU: si vuelve a una cola, el gestor lo vigila ahí
+            }
+            ProcessControlBlock desalojado = cpu.desalojarProceso();
+            if (desalojado == null) {
+                continue; // La E/S se lo llevó entre la lectura y el desalojo
+            }
+            desalojado.setEstado(ProcessControlBlock.EstadoProceso.LISTO);
+            GestorSobrecarga gestor = this.gestorSobrecarga;
+            if (desalojado == pcb && gestor != null) {
+                gestor.descartarDesalojado(desalojado, colaListos);
+            } else {
+                colaListos.encolar(desalojado);
+            }
         }
     }
 
+    /**
+     * Bloquea a los procesos recibidos con recibirBloqueo(). Debe llamarse con
+     * planificadorMutex adquirido.
+     */
+    private void atenderBloqueosIO() {
+        ProcessControlBlock pcb;
+        while ((pcb = bloqueosIO.desencolar()) != null) {
+            // La política se entera antes de que el proceso pueda volver a Listos
+            politicaActual.alBloquearse(pcb);
+            gestorMemoria.bloquearProceso(pcb);
+        }
+    }
+
+    /**
+     * Entrega al GestorSobrecarga los procesos recibidos con descartar(). Debe
+     * llamarse con planificadorMutex adquirido.
+     */
+    private void atenderDescartes() {
+        GestorSobrecarga gestor = this.gestorSobrecarga;
+        ProcessControlBlock pcb;
+        while ((pcb = descartes.desencolar()) != null) {
+            if (gestor != null) {
+                gestor.descartarEnEspera(pcb);
+            }
+        }
+    }
+
+    void setGestorSobrecarga(GestorSobrecarga gestorSobrecarga) {
+        this.gestorSobrecarga = gestorSobrecarga;
+    }
+
+    void setBalanceador(BalanceadorCarga balanceador) {
+        this.balanceador = balanceador;
+    }
+
+    public Procesador getProcesador() {
+        return cpu;
+    }
+
+    public ThreadSafeQueue getColaListos() {
+        return colaListos;
+    }
+
+    public PoliticaPlanificacion getPolitica() {
+        return politicaActual;
+    }
+
+    public int getProcesosTerminados() {
+        return procesosTerminados;
+    }
+
+    public int getDeadlinesCumplidos() {
+        return deadlinesCumplidos;
+    }
+
     public void detenerPlanificador() {
         this.planificadorActivo = false;
+        notificarEvento(); // Despertarlo para que observe la bandera y salga
     }
 }
\ No newline at end of file
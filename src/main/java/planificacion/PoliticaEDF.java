@@ -5,37 +5,27 @@
 package planificacion;
 
 import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
+import estructuras.CriterioOrden;
 import estructuras.ThreadSafeQueue;
 
 /**
  * Política de Planificación Earliest Deadline First (EDF).
- * Selecciona el proceso cuyo tiempo restante para su deadline esté más cercano a cero.
+ * Selecciona el proceso cuyo deadline absoluto (ciclo límite) sea el más próximo.
+ * La cola de listos se mantiene como montículo por deadline, así que el candidato
+ * está siempre al frente.
  */
 public class PoliticaEDF extends PoliticaPlanificacion {
 
     @Override
-    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
-        
-        if (snapshot == null || snapshot.length == 0) {
-            return null;
-        }
-
-        int menorTiempoRestante = Integer.MAX_VALUE;
-        String idSeleccionado = null;
-
-        for (ProcessControlBlock pcbActual : snapshot) {
-            if (pcbActual != null && pcbActual.getTiempoRestanteDeadline() < menorTiempoRestante) {
-                menorTiempoRestante = pcbActual.getTiempoRestanteDeadline();
-                idSeleccionado = pcbActual.getId();
-            }
-        }
-
-        if (idSeleccionado != null) {
-            return colaListos.extraerPorId(idSeleccionado);
-        }
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.DEADLINE);
+    }
 
-        return null;
+    @Override
+    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
+        // El montículo entrega el deadline más cercano en O(log n)
+        return colaListos.desencolar();
     }
 
     @Override
@@ -44,24 +34,22 @@ public class PoliticaEDF extends PoliticaPlanificacion {
             return false; 
         }
 
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
-        
-        if (snapshot == null || snapshot.length == 0) {
-            return false;
-        }
+        ProcessControlBlock masUrgente = colaListos.verPrimero();
 
-        for (ProcessControlBlock pcbEnCola : snapshot) {
-            // Si hay un proceso cuyo deadline está más apremiante que el proceso actual en CPU
-            if (pcbEnCola != null && pcbEnCola.getTiempoRestanteDeadline() < procesoEnCpu.getTiempoRestanteDeadline()) {
-                return true;
-            }
-        }
+        // Si hay un proceso cuyo deadline está más apremiante que el proceso actual en CPU
+        return masUrgente != null && masUrgente.getDeadlineEfectivo() < procesoEnCpu.getDeadlineEfectivo();
+    }
 
-        return false;
+    /**
+     * Con un núcleo es óptima: basta con que la demanda quepa antes de cada deadline.
+     */
+    @Override
+    public ControlAdmision.Prueba getPruebaAdmision() {
+        return ControlAdmision.Prueba.DEMANDA_EDF;
     }
 
     @Override
     public String getNombrePolitica() {
         return "Earliest Deadline First (EDF)";
     }
-}
\ No newline at end of file
+}
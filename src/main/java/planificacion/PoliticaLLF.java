@@ -0,0 +1,108 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package planificacion;
+
+import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
+import estructuras.CriterioOrden;
+import estructuras.ThreadSafeQueue;
+
+/**
+ * Política Least Laxity First (LLF).
+ * Laxitud = tiempo restante hasta el deadline - instrucciones restantes: cuánto
+ * puede esperar el proceso sin perder su deadline.
+ *
+ * Mientras un proceso espera, su laxitud baja un ciclo por ciclo igual que la de
+ * todos los demás en espera, así que el orden relativo no cambia: la cola de
+ * listos es un montículo por (deadline absoluto - restantes), que es la laxitud
+ * más el ciclo actual. Elegir cuesta O(log n) y consultar el mínimo O(1).
+ *
+ * Anti-thrashing: el proceso en CPU conserva su laxitud mientras los que esperan
+ * la pierden, lo que con laxitudes parecidas provocaría un cambio de contexto por
+ * ciclo. Por eso solo se expropia tras un quantum mínimo de ejecución.
+ */
+public class PoliticaLLF extends PoliticaPlanificacion {
+
+    private static final int QUANTUM_MINIMO_POR_DEFECTO = 3;
+
+    private final int quantumMinimo;
+    private ProcessControlBlock procesoAsignado;
+    private int pcAlAsignar;
+
+    public PoliticaLLF() {
+        this(QUANTUM_MINIMO_POR_DEFECTO);
+    }
+
+    /**
+     * @param quantumMinimo Instrucciones que el proceso en CPU ejecuta antes de poder ser expropiado.
+     */
+    public PoliticaLLF(int quantumMinimo) {
+        this.quantumMinimo = quantumMinimo;
+        this.procesoAsignado = null;
+        this.pcAlAsignar = 0;
+    }
+
+    @Override
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.LAXITUD);
+    }
+
+    @Override
+    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
+        // El montículo entrega la menor laxitud en O(log n)
+        ProcessControlBlock siguiente = colaListos.desencolar();
+        this.procesoAsignado = siguiente;
+        this.pcAlAsignar = (siguiente != null) ? siguiente.getPc() : 0;
+        return siguiente;
+    }
+
+    @Override
+    public boolean requiereDesalojo(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos) {
+        if (procesoEnCpu == null || colaListos.estaVacia()) {
+            return false;
+        }
+        if (procesoAsignado != procesoEnCpu) {
+            procesoAsignado = procesoEnCpu;
+            pcAlAsignar = procesoEnCpu.getPc();
+        }
+        if (procesoEnCpu.getPc() - pcAlAsignar < quantumMinimo) {
+            return false; // Aún no cumple su quantum mínimo
+        }
+
+        ProcessControlBlock menosHolgura = colaListos.verPrimero();
+        // Ambas claves incluyen el mismo ciclo actual, así que se comparan directamente
+        return menosHolgura != null
+                && CriterioOrden.LAXITUD.claveDe(menosHolgura) < CriterioOrden.LAXITUD.claveDe(procesoEnCpu);
+    }
+
+    @Override
+    public int proximaDecision(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos, int cicloActual) {
+        ProcessControlBlock menosHolgura = colaListos.verPrimero();
+        if (menosHolgura == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (procesoAsignado != procesoEnCpu) {
+            return cicloActual + 1;
+        }
+        int quantumRestante = quantumMinimo - (procesoEnCpu.getPc() - pcAlAsignar);
+        // La clave del proceso en CPU crece uno por instrucción: se expropia al superar a la menor
+        long cruce = CriterioOrden.LAXITUD.claveDe(menosHolgura) - CriterioOrden.LAXITUD.claveDe(procesoEnCpu) + 1;
+        long espera = Math.max(1, Math.max(quantumRestante, cruce));
+        return (int) Math.min(Integer.MAX_VALUE, cicloActual + espera);
+    }
+
+    /**
+     * Con un núcleo es óptima: basta con que la demanda quepa antes de cada deadline.
+     */
+    @Override
+    public ControlAdmision.Prueba getPruebaAdmision() {
+        return ControlAdmision.Prueba.DEMANDA_EDF;
+    }
+
+    @Override
+    public String getNombrePolitica() {
+        return "Least Laxity First (LLF)";
+    }
+}
\ No newline at end of file
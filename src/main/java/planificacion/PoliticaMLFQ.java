@@ -0,0 +1,148 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package planificacion;
+
+import modelos.ProcessControlBlock;
+import estructuras.ColaMultinivel;
+import estructuras.CriterioOrden;
+import estructuras.ThreadSafeQueue;
+
+/**
+ * Política Multilevel Feedback Queue (MLFQ) con envejecimiento.
+ * Cada proceso tiene un nivel dinámico (0 = más urgente) y cada nivel su quantum:
+ * - Agotar el quantum baja al proceso un nivel (tareas de CPU se hunden).
+ * - Bloquearse antes de agotarlo lo sube un nivel (tareas de E/S quedan arriba).
+ * - Cada periodo de envejecimiento los procesos en espera suben un nivel, así
+ *   ninguno se queda sin CPU de forma indefinida.
+ * La cola de listos es una cola multinivel con mapa de bits, igual que en
+ * Prioridad Estática: elegir y decidir la expropiación cuesta O(1).
+ */
+public class PoliticaMLFQ extends PoliticaPlanificacion {
+
+    private static final int[] QUANTUMS_POR_DEFECTO = {2, 4, 8, 16};
+    private static final int ENVEJECIMIENTO_POR_DEFECTO = 100;
+
+    private final int[] quantums;
+    private final int periodoEnvejecimiento;
+
+    private ProcessControlBlock procesoAsignado;
+    private int pcAlAsignar;
+    private int cicloUltimoEnvejecimiento;
+    private ProcessControlBlock[] bufferEnvejecimiento;
+
+    public PoliticaMLFQ() {
+        this(QUANTUMS_POR_DEFECTO, ENVEJECIMIENTO_POR_DEFECTO);
+    }
+
+    /**
+     * @param quantums Quantum de cada nivel, del más urgente al menos urgente (1 a 64 niveles).
+     * @param periodoEnvejecimiento Ciclos entre cada promoción de los procesos en espera.
+     */
+    public PoliticaMLFQ(int[] quantums, int periodoEnvejecimiento) {
+        if (quantums.length == 0 || quantums.length > ColaMultinivel.NIVELES) {
+            throw new IllegalArgumentException("Cantidad de niveles inválida: " + quantums.length);
+        }
+        this.quantums = quantums.clone();
+        this.periodoEnvejecimiento = periodoEnvejecimiento;
+        this.procesoAsignado = null;
+        this.pcAlAsignar = 0;
+        this.cicloUltimoEnvejecimiento = 0;
+        this.bufferEnvejecimiento = new ProcessControlBlock[16];
+    }
+
+    @Override
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.NIVEL_MLFQ);
+    }
+
+    @Override
+    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
+        // La cola multinivel entrega la cabeza del nivel más alto ocupado
+        ProcessControlBlock siguiente = colaListos.desencolar();
+        this.procesoAsignado = siguiente;
+        this.pcAlAsignar = (siguiente != null) ? siguiente.getPc() : 0;
+        return siguiente;
+    }
+
+    @Override
+    public boolean requiereDesalojo(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos) {
+        if (procesoEnCpu == null) {
+            return false;
+        }
+        if (procesoAsignado != procesoEnCpu) {
+            // Lo asignó otro (ej. retorno de interrupción): su quantum empieza ahora
+            procesoAsignado = procesoEnCpu;
+            pcAlAsignar = procesoEnCpu.getPc();
+        }
+
+        int nivel = nivelDe(procesoEnCpu);
+        if (procesoEnCpu.getPc() - pcAlAsignar >= quantums[nivel]) {
+            // Usó todo su quantum: baja un nivel antes de volver a la cola
+            procesoEnCpu.setNivelMLFQ(Math.min(nivel + 1, quantums.length - 1));
+            return true;
+        }
+
+        // Llegó alguien de un nivel más alto: expropia sin castigar al actual
+        // (un degradado cuenta como del último nivel, igual que en la cola)
+        long nivelesMasUrgentes = (1L << CriterioOrden.NIVEL_MLFQ.claveDe(procesoEnCpu)) - 1;
+        return (colaListos.getMapaNiveles() & nivelesMasUrgentes) != 0L;
+    }
+
+    @Override
+    public void alBloquearse(ProcessControlBlock pcb) {
+        // Cedió la CPU antes de agotar el quantum: se premia con un nivel más alto
+        pcb.setNivelMLFQ(Math.max(nivelDe(pcb) - 1, 0));
+        if (pcb == procesoAsignado) {
+            procesoAsignado = null;
+        }
+    }
+
+    @Override
+    public void alAvanzarTiempo(int cicloGlobal, ThreadSafeQueue colaListos) {
+        if (cicloGlobal - cicloUltimoEnvejecimiento < periodoEnvejecimiento) {
+            return;
+        }
+        cicloUltimoEnvejecimiento = cicloGlobal;
+        if (colaListos.estaVacia()) {
+            return;
+        }
+
+        // Sacar a todos los que esperan, subirlos un nivel y reinsertarlos
+        int tamano = colaListos.obtenerTamanoSeguro();
+        if (bufferEnvejecimiento.length < tamano) {
+            bufferEnvejecimiento = new ProcessControlBlock[Math.max(tamano, bufferEnvejecimiento.length * 2)];
+        }
+        int cantidad = colaListos.drenar(bufferEnvejecimiento, bufferEnvejecimiento.length);
+        for (int i = 0; i < cantidad; i++) {
+            ProcessControlBlock pcb = bufferEnvejecimiento[i];
+            bufferEnvejecimiento[i] = null;
+            pcb.setNivelMLFQ(Math.max(nivelDe(pcb) - 1, 0));
+            colaListos.encolar(pcb);
+        }
+    }
+
+    @Override
+    public int proximaDecision(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos, int cicloActual) {
+        if (procesoAsignado != procesoEnCpu) {
+            return cicloActual + 1;
+        }
+        int usado = procesoEnCpu.getPc() - pcAlAsignar;
+        int finQuantum = cicloActual + Math.max(1, quantums[nivelDe(procesoEnCpu)] - usado);
+        if (colaListos.estaVacia()) {
+            return finQuantum;
+        }
+        // Con procesos en espera, el próximo envejecimiento también reordena la cola
+        return Math.min(finQuantum, Math.max(cicloActual + 1, cicloUltimoEnvejecimiento + periodoEnvejecimiento));
+    }
+
+    @Override
+    public String getNombrePolitica() {
+        return "MLFQ (" + quantums.length + " niveles)";
+    }
+
+    private int nivelDe(ProcessControlBlock pcb) {
+        return Math.max(0, Math.min(pcb.getNivelMLFQ(), quantums.length - 1));
+    }
+}
\ No newline at end of file
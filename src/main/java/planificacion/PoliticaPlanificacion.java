@@ -5,6 +5,8 @@
 package planificacion;
 
 import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
+import estructuras.CriterioOrden;
 import estructuras.ThreadSafeQueue;
 
 /**
@@ -18,4 +20,53 @@ public abstract class PoliticaPlanificacion {
     public abstract boolean requiereDesalojo(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos);
     
     public abstract String getNombrePolitica();
+
+    /**
+     * Se invoca cuando el Planificador activa esta política sobre la cola de listos.
+     * Por defecto la cola se atiende en FIFO; las políticas con orden propio lo sobrescriben.
+     * @param colaListos Cola de listos que la política va a gobernar.
+     */
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.FIFO);
+    }
+
+    /**
+     * Se invoca una vez por pasada del Planificador con el último ciclo del reloj,
+     * para políticas con comportamiento temporal (ej. envejecimiento).
+     * @param cicloGlobal Último ciclo completado por el reloj.
+     * @param colaListos Cola de listos gobernada.
+     */
+    public void alAvanzarTiempo(int cicloGlobal, ThreadSafeQueue colaListos) {
+    }
+
+    /**
+     * Próximo ciclo en que la política podría expropiar al proceso en CPU aunque la
+     * cola no cambie (fin de quantum, envejecimiento). El reloj sin ticks no se
+     * detiene antes; los cambios de la cola despiertan al planificador por su cuenta.
+     * Por defecto la decisión solo depende de la cola.
+     * @param procesoEnCpu Proceso en ejecución (no nulo).
+     * @param colaListos Cola de listos gobernada.
+     * @param cicloActual Último ciclo completado.
+     * @return Ciclo absoluto, o Integer.MAX_VALUE si no hay decisión temporal pendiente.
+     */
+    public int proximaDecision(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos, int cicloActual) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Prueba de planificabilidad que el ControlAdmision debe usar con esta política.
+     * Por defecto ninguna: sin una cota propia solo se rechaza lo que no cabe ni con
+     * la CPU exclusiva.
+     * @return Prueba de admisión.
+     */
+    public ControlAdmision.Prueba getPruebaAdmision() {
+        return ControlAdmision.Prueba.NINGUNA;
+    }
+
+    /**
+     * Se invoca cuando el proceso en CPU deja de ejecutar por quedar Bloqueado (E/S).
+     * @param pcb Proceso que se bloquea.
+     */
+    public void alBloquearse(ProcessControlBlock pcb) {
+    }
 }
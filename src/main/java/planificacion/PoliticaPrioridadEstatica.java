@@ -5,39 +5,29 @@
 package planificacion;
 
 import modelos.ProcessControlBlock;
+import motor.ControlAdmision;
+import estructuras.ColaMultinivel;
+import estructuras.CriterioOrden;
 import estructuras.ThreadSafeQueue;
 
 /**
  * Política de Planificación de Prioridad Estática (Preemptiva).
  * Selecciona el proceso con la mayor prioridad numérica (valor más cercano a 1).
+ * La cola de listos se mantiene como cola multinivel con mapa de bits: elegir y
+ * decidir la expropiación cuesta O(1) sin importar cuántos procesos esperen.
  */
 public class PoliticaPrioridadEstatica extends PoliticaPlanificacion {
 
     @Override
-    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
-        
-        if (snapshot == null || snapshot.length == 0) {
-            return null;
-        }
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.PRIORIDAD);
+    }
 
+    @Override
+    public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
         // Asumimos que un valor numérico MENOR significa MAYOR prioridad (ej. 1 es lo más crítico)
-        int mejorPrioridad = Integer.MAX_VALUE;
-        String idSeleccionado = null;
-
-        for (ProcessControlBlock pcbActual : snapshot) {
-            if (pcbActual != null && pcbActual.getPrioridad() < mejorPrioridad) {
-                mejorPrioridad = pcbActual.getPrioridad();
-                idSeleccionado = pcbActual.getId();
-            }
-        }
-
-        if (idSeleccionado != null) {
-            // Extraemos de la cola real usando el semáforo interno de ThreadSafeQueue
-            return colaListos.extraerPorId(idSeleccionado);
-        }
-
-        return null;
+        // La cola multinivel entrega la cabeza del nivel más urgente en O(1)
+        return colaListos.desencolar();
     }
 
     @Override
@@ -46,24 +36,24 @@ public class PoliticaPrioridadEstatica extends PoliticaPlanificacion {
             return false; // Si la CPU está vacía, no hay a quién desalojar
         }
 
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
-        
-        if (snapshot == null || snapshot.length == 0) {
-            return false;
-        }
-
-        for (ProcessControlBlock pcbEnCola : snapshot) {
-            // Si hay un proceso en la cola con mayor urgencia (menor número) que el de la CPU
-            if (pcbEnCola != null && pcbEnCola.getPrioridad() < procesoEnCpu.getPrioridad()) {
-                return true; 
-            }
-        }
+        // Si hay un proceso en la cola con mayor urgencia (menor número) que el de la CPU:
+        // basta con ver si hay algún bit encendido por debajo del nivel del proceso en CPU
+        // Misma clave que usaría la cola: un degradado cuenta como del último nivel
+        int nivelCpu = ColaMultinivel.nivelDe(CriterioOrden.PRIORIDAD.claveDe(procesoEnCpu));
+        long nivelesMasUrgentes = (1L << nivelCpu) - 1;
+        return (colaListos.getMapaNiveles() & nivelesMasUrgentes) != 0L;
+    }
 
-        return false;
+    /**
+     * Cada proceso espera a lo sumo el trabajo de su nivel y de los más prioritarios.
+     */
+    @Override
+    public ControlAdmision.Prueba getPruebaAdmision() {
+        return ControlAdmision.Prueba.DEMANDA_PRIORIDAD;
     }
 
     @Override
     public String getNombrePolitica() {
         return "Prioridad Estática (Preemptiva)";
     }
-}
\ No newline at end of file
+}
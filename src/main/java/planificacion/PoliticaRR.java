@@ -10,20 +10,24 @@ import estructuras.ThreadSafeQueue;
 public class PoliticaRR extends PoliticaPlanificacion {
 
     private final int quantumInicial;
-    private int ciclosEjecutadosProcesoActual;
+    // El quantum se mide en instrucciones ejecutadas (avance del PC), no en pasadas del
+    // planificador: con planificación por eventos la cantidad de pasadas por ciclo varía
+    private int pcAlAsignar;
     private ProcessControlBlock ultimoProcesoEvaluado;
 
     public PoliticaRR(int quantum) {
         this.quantumInicial = quantum;
-        this.ciclosEjecutadosProcesoActual = 0;
+        this.pcAlAsignar = 0;
         this.ultimoProcesoEvaluado = null;
     }
 
     @Override
     public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
         // Al asignar un nuevo proceso, el quantum se reinicia
-        this.ciclosEjecutadosProcesoActual = 0;
-        return colaListos.desencolar();
+        ProcessControlBlock siguiente = colaListos.desencolar();
+        this.ultimoProcesoEvaluado = siguiente;
+        this.pcAlAsignar = (siguiente != null) ? siguiente.getPc() : 0;
+        return siguiente;
     }
 
     @Override
@@ -33,12 +37,18 @@ public class PoliticaRR extends PoliticaPlanificacion {
         // Validar si el proceso en CPU cambió externamente para reiniciar el contador
         if (this.ultimoProcesoEvaluado != procesoEnCpu) {
             this.ultimoProcesoEvaluado = procesoEnCpu;
-            this.ciclosEjecutadosProcesoActual = 0;
+            this.pcAlAsignar = procesoEnCpu.getPc();
         }
 
-        this.ciclosEjecutadosProcesoActual++;
+        return procesoEnCpu.getPc() - this.pcAlAsignar >= this.quantumInicial;
+    }
 
-        return this.ciclosEjecutadosProcesoActual >= this.quantumInicial;
+    @Override
+    public int proximaDecision(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos, int cicloActual) {
+        if (this.ultimoProcesoEvaluado != procesoEnCpu) {
+            return cicloActual + 1; // La próxima pasada reinicia su quantum
+        }
+        return cicloActual + Math.max(1, this.quantumInicial - (procesoEnCpu.getPc() - this.pcAlAsignar));
     }
 
     @Override
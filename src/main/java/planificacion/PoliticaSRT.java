@@ -5,54 +5,38 @@
 package planificacion;
 
 import modelos.ProcessControlBlock;
+import estructuras.CriterioOrden;
 import estructuras.ThreadSafeQueue;
 
+/**
+ * Política Shortest Remaining Time (SRT).
+ * La cola de listos se mantiene como montículo por instrucciones restantes (no
+ * cambian mientras el proceso espera), así que el candidato está siempre al
+ * frente: elegir cuesta O(log n) y la prueba de expropiación compara contra la
+ * cima en O(1).
+ */
 public class PoliticaSRT extends PoliticaPlanificacion {
 
+    @Override
+    public void alActivar(ThreadSafeQueue colaListos) {
+        colaListos.setCriterioOrden(CriterioOrden.RESTANTES);
+    }
+
     @Override
     public ProcessControlBlock seleccionarSiguienteProceso(ThreadSafeQueue colaListos) {
-        if (colaListos.obtenerTamanoSeguro() == 0) {
-            return null;
-        }
-
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
-        if (snapshot.length == 0) return null;
-
-        // Buscar el proceso con el menor tiempo restante
-        ProcessControlBlock srtProceso = snapshot[0];
-        int menorTiempoRestante = srtProceso.getCantidadInstrucciones() - srtProceso.getPc();
-
-        for (int i = 1; i < snapshot.length; i++) {
-            ProcessControlBlock actual = snapshot[i];
-            int tiempoRestante = actual.getCantidadInstrucciones() - actual.getPc();
-            
-            if (tiempoRestante < menorTiempoRestante) {
-                srtProceso = actual;
-                menorTiempoRestante = tiempoRestante;
-            }
-        }
-
-        // Se extrae por ID usando el método de nuestra cola personalizada
-        return colaListos.extraerPorId(srtProceso.getId());
+        // El montículo entrega el menor tiempo restante en O(log n)
+        return colaListos.desencolar();
     }
 
     @Override
     public boolean requiereDesalojo(ProcessControlBlock procesoEnCpu, ThreadSafeQueue colaListos) {
         if (procesoEnCpu == null) return false;
-        if (colaListos.obtenerTamanoSeguro() == 0) return false;
-
-        int tiempoRestanteCpu = procesoEnCpu.getCantidadInstrucciones() - procesoEnCpu.getPc();
-        ProcessControlBlock[] snapshot = colaListos.obtenerSnapshot();
 
-        for (ProcessControlBlock snapshot1 : snapshot) {
-            int tiempoRestanteEnCola = snapshot1.getCantidadInstrucciones() - snapshot1.getPc();
-            if (tiempoRestanteEnCola < tiempoRestanteCpu) {
-                // Hay un proceso en cola que terminaría más rápido, expropiamos a la CPU
-                return true;
-            }
-        }
+        ProcessControlBlock primero = colaListos.verPrimero();
+        if (primero == null) return false;
 
-        return false;
+        // Hay un proceso en cola que terminaría más rápido, expropiamos a la CPU (misma clave que la cola)
+        return CriterioOrden.RESTANTES.claveDe(primero) < CriterioOrden.RESTANTES.claveDe(procesoEnCpu);
     }
 
     @Override
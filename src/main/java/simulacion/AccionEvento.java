@@ -0,0 +1,17 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package simulacion;
+
+/**
+ * Acción que el MotorEventosDiscretos ejecuta al alcanzar el ciclo de un evento.
+ */
+@FunctionalInterface
+public interface AccionEvento {
+
+    /**
+     * @param ciclo Ciclo virtual en que ocurre el evento.
+     */
+    void ejecutar(int ciclo);
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package simulacion;
+
+/**
+ * Evento programado en el tiempo virtual del MotorEventosDiscretos.
+ * Se ordena por ciclo, luego por clase (reloj, externos, planificación) y
+ * finalmente por orden de programación, así que dos corridas con la misma
+ * semilla procesan exactamente la misma secuencia.
+ */
+public final class Evento {
+
+    private final int ciclo;
+    private final int clase;
+    private final long secuencia;
+    private final AccionEvento accion;
+
+    // Posición en el montículo del motor (-1 = ya ejecutado o cancelado)
+    private int posicion;
+
+    Evento(int ciclo, int clase, long secuencia, AccionEvento accion) {
+        this.ciclo = ciclo;
+        this.clase = clase;
+        this.secuencia = secuencia;
+        this.accion = accion;
+        this.posicion = -1;
+    }
+
+    public int getCiclo() {
+        return ciclo;
+    }
+
+    public int getClase() {
+        return clase;
+    }
+
+    public boolean estaProgramado() {
+        return posicion >= 0;
+    }
+
+    AccionEvento getAccion() {
+        return accion;
+    }
+
+    int getPosicion() {
+        return posicion;
+    }
+
+    void setPosicion(int posicion) {
+        this.posicion = posicion;
+    }
+
+    boolean esAnteriorA(Evento otro) {
+        if (ciclo != otro.ciclo) {
+            return ciclo < otro.ciclo;
+        }
+        if (clase != otro.clase) {
+            return clase < otro.clase;
+        }
+        return secuencia < otro.secuencia;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,356 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package simulacion;
+
+import hardware.Procesador;
+import hardware.RelojSistema;
+import modelos.ProcessControlBlock;
+import motor.GestorMemoria;
+import planificacion.Planificador;
+import java.util.Random;
+
+/**
+ * Motor de simulación por eventos discretos en tiempo virtual.
+ * El pulso del reloj, las pasadas del planificador, las llegadas, los fines de
+ * E/S y las interrupciones son eventos de un único montículo ordenado por ciclo.
+ * No hay hilos ni esperas: mientras algún núcleo tiene trabajo el reloj avanza en
+ * lotes hasta el próximo ciclo de interés (RelojSistema.calcularHorizonte() o el
+ * próximo evento) y, cuando todo está ocioso, salta directo al próximo evento.
+ *
+ * Orden dentro de un mismo ciclo: primero el pulso (los núcleos ejecutan el ciclo
+ * y los oyentes del reloj se enteran), luego los eventos externos y al final la
+ * pasada de planificación que decide quién corre en el ciclo siguiente.
+ * Con la misma semilla y la misma carga, dos corridas son idénticas.
+ *
+ * Los planificadores conectados no deben tener hilo propio ni el reloj debe
+ * estar corriendo: el motor los invoca en el hilo que llama a ejecutarHasta().
+ */
+public class MotorEventosDiscretos {
+
+    public static final int CLASE_RELOJ = 0;
+    public static final int CLASE_EXTERNO = 1;
+    public static final int CLASE_PLANIFICACION = 2;
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final RelojSistema reloj;
+    private final Random aleatorio;
+
+    // Montículo mínimo de eventos pendientes
+    private Evento[] monticulo;
+    private int tamano;
+    private long contadorSecuencia;
+
+    /**
+     * Nivel de secuestro con el que el motor atiende las interrupciones programadas.
+     */
+    public static final int NIVEL_INTERRUPCION = Procesador.NIVELES_SECUESTRO - 1;
+
+    // Núcleos gobernados por el motor y fin de la interrupción en curso en cada uno
+    private Planificador[] nucleos;
+    private int[] finInterrupcion;
+
+    private Evento eventoPulso;
+    private boolean pasadaPendiente;
+    private long eventosProcesados;
+
+    /**
+     * @param reloj Reloj del sistema (su hilo no debe iniciarse).
+     * @param semilla Semilla del generador aleatorio compartido por la simulación.
+     */
+    public MotorEventosDiscretos(RelojSistema reloj, long semilla) {
+        this.reloj = reloj;
+        this.aleatorio = new Random(semilla);
+        this.monticulo = new Evento[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+        this.contadorSecuencia = 0;
+        this.nucleos = new Planificador[0];
+        this.finInterrupcion = new int[0];
+        this.eventoPulso = null;
+        this.pasadaPendiente = false;
+        this.eventosProcesados = 0;
+    }
+
+    /**
+     * Pone un planificador bajo el control del motor: sus pasadas pasan a ser eventos.
+     * @param planificador Planificador sin hilo propio (su núcleo ya debe estar en el reloj).
+     */
+    public void agregarPlanificador(Planificador planificador) {
+        int n = nucleos.length;
+        Planificador[] nuevos = new Planificador[n + 1];
+        System.arraycopy(nucleos, 0, nuevos, 0, n);
+        nuevos[n] = planificador;
+        int[] nuevosFines = new int[n + 1];
+        System.arraycopy(finInterrupcion, 0, nuevosFines, 0, n);
+        nuevosFines[n] = -1;
+        this.nucleos = nuevos;
+        this.finInterrupcion = nuevosFines;
+    }
+
+    /**
+     * Redirige los avisos del gestor (admisiones pendientes) a pasadas del motor.
+     * Debe llamarse después de crear los planificadores, que registran su propio aviso.
+     * @param gestor
+     */
+    public void conectarGestor(GestorMemoria gestor) {
+        gestor.setAvisoPlanificador(this::solicitarPasada);
+    }
+
+    /**
+     * Programa una acción arbitraria.
+     * @param ciclo Ciclo virtual (si ya pasó, ocurre en el ciclo actual).
+     * @param clase CLASE_RELOJ, CLASE_EXTERNO o CLASE_PLANIFICACION.
+     * @param accion
+     * @return El evento, cancelable con cancelar().
+     */
+    public Evento programar(int ciclo, int clase, AccionEvento accion) {
+        Evento evento = new Evento(Math.max(ciclo, reloj.getCicloGlobal()), clase, contadorSecuencia++, accion);
+        if (tamano == monticulo.length) {
+            Evento[] mayor = new Evento[monticulo.length * 2];
+            System.arraycopy(monticulo, 0, mayor, 0, tamano);
+            monticulo = mayor;
+        }
+        colocar(evento, tamano++);
+        subir(evento.getPosicion());
+        if (clase != CLASE_RELOJ && evento.getCiclo() > reloj.getCicloGlobal()) {
+            // El lote en curso no puede saltarse este evento: el pulso llega hasta él
+            acortarPulso(evento.getCiclo());
+        }
+        return evento;
+    }
+
+    /**
+     * @param evento
+     * @return true si el evento seguía pendiente.
+     */
+    public boolean cancelar(Evento evento) {
+        if (!evento.estaProgramado()) {
+            return false;
+        }
+        eliminarEn(evento.getPosicion());
+        return true;
+    }
+
+    /**
+     * Llegada de un proceso al sistema en un ciclo dado.
+     * @param ciclo
+     * @param pcb
+     * @param gestor
+     * @return
+     */
+    public Evento programarLlegada(int ciclo, ProcessControlBlock pcb, GestorMemoria gestor) {
+        return programar(ciclo, CLASE_EXTERNO, c -> {
+            gestor.solicitarAdmision(pcb);
+            solicitarPasada();
+        });
+    }
+
+    /**
+     * Fin de la E/S de un proceso bloqueado: vuelve a competir por la CPU.
+     * @param ciclo
+     * @param pcb
+     * @param gestor
+     * @return
+     */
+    public Evento programarFinIO(int ciclo, ProcessControlBlock pcb, GestorMemoria gestor) {
+        return programar(ciclo, CLASE_EXTERNO, c -> {
+            if (gestor.desbloquearProceso(pcb)) {
+                solicitarPasada();
+            }
+        });
+    }
+
+    /**
+     * Interrupción de hardware: secuestra el núcleo durante los ciclos indicados
+     * (el proceso en curso queda congelado y luego continúa).
+     * Una interrupción que llega durante otra extiende el servicio.
+     * @param ciclo Ciclo de llegada.
+     * @param nucleo Índice del núcleo (orden de agregarPlanificador).
+     * @param duracionCiclos Ciclos de servicio.
+     * @return
+     */
+    public Evento programarInterrupcion(int ciclo, int nucleo, int duracionCiclos) {
+        return programar(ciclo, CLASE_EXTERNO, c -> {
+            if (finInterrupcion[nucleo] < 0) {
+                nucleos[nucleo].getProcesador().secuestrar(NIVEL_INTERRUPCION);
+            }
+            finInterrupcion[nucleo] = Math.max(finInterrupcion[nucleo], c + duracionCiclos);
+            programar(finInterrupcion[nucleo], CLASE_EXTERNO, this::retornarDeInterrupciones);
+            programarPulso(c + 1); // La rutina consume ciclos aunque no haya proceso
+        });
+    }
+
+    /**
+     * Solicita una pasada de planificación en el ciclo actual (varias se fusionan en una).
+     */
+    public void solicitarPasada() {
+        if (!pasadaPendiente) {
+            pasadaPendiente = true;
+            programar(reloj.getCicloGlobal(), CLASE_PLANIFICACION, this::pasada);
+        }
+    }
+
+    /**
+     * Procesa en orden todos los eventos hasta el ciclo límite (inclusive) o hasta
+     * que no quede nada pendiente.
+     * @param cicloLimite
+     * @return Ciclo virtual alcanzado.
+     */
+    public int ejecutarHasta(int cicloLimite) {
+        while (tamano > 0 && monticulo[0].getCiclo() <= cicloLimite) {
+            Evento evento = monticulo[0];
+            eliminarEn(0);
+            if (evento.getClase() != CLASE_RELOJ && evento.getCiclo() > reloj.getCicloGlobal()) {
+                // Sin pulso pendiente antes de este evento: todo estaba ocioso, saltar el hueco
+                reloj.saltarA(evento.getCiclo());
+            }
+            evento.getAccion().ejecutar(evento.getCiclo());
+            eventosProcesados++;
+        }
+        return reloj.getCicloGlobal();
+    }
+
+    public Random getAleatorio() {
+        return aleatorio;
+    }
+
+    public long getEventosProcesados() {
+        return eventosProcesados;
+    }
+
+    public int getEventosPendientes() {
+        return tamano;
+    }
+
+    // ==========================================
+    // EVENTOS PROPIOS DEL MOTOR
+    // ==========================================
+
+    private void programarPulso(int ciclo) {
+        if (eventoPulso == null) {
+            eventoPulso = programar(ciclo, CLASE_RELOJ, this::pulso);
+        } else {
+            acortarPulso(ciclo);
+        }
+    }
+
+    /**
+     * Adelanta el pulso pendiente (si lo hay) para que no pase del ciclo indicado.
+     */
+    private void acortarPulso(int ciclo) {
+        if (eventoPulso != null && eventoPulso.getCiclo() > ciclo) {
+            cancelar(eventoPulso);
+            eventoPulso = programar(ciclo, CLASE_RELOJ, this::pulso);
+        }
+    }
+
+    private void pulso(int ciclo) {
+        eventoPulso = null;
+        // Todos los ciclos desde el último pulso corren como un único lote
+        reloj.avanzarCiclos(ciclo - reloj.getCicloGlobal());
+        solicitarPasada();
+    }
+
+    private void pasada(int ciclo) {
+        pasadaPendiente = false;
+        boolean ocupado = false;
+        for (Planificador nucleo : nucleos) {
+            // Con la CPU secuestrada la pasada no despacha; la rutina igual consume ciclos
+            nucleo.planificarAhora();
+            Procesador cpu = nucleo.getProcesador();
+            if (cpu.getProcesoActualSeguro() != null || cpu.estaSecuestrada()) {
+                ocupado = true;
+            }
+        }
+        // Mientras haya trabajo el reloj avanza hasta el próximo ciclo de interés; si no,
+        // espera al próximo evento o a lo que un oyente tenga pendiente (ej. fin de una E/S)
+        if (eventoPulso != null) {
+            cancelar(eventoPulso);
+            eventoPulso = null;
+        }
+        int actual = reloj.getCicloGlobal();
+        int horizonte = reloj.calcularHorizonte();
+        boolean oyentePendiente = horizonte < actual + RelojSistema.MAX_CICLOS_LOTE;
+        if (ocupado) {
+            for (Planificador nucleo : nucleos) {
+                horizonte = Math.min(horizonte, nucleo.proximoCicloDeInteres(actual));
+            }
+        }
+        if (ocupado || oyentePendiente) {
+            if (tamano > 0) {
+                horizonte = Math.min(horizonte, monticulo[0].getCiclo());
+            }
+            programarPulso(Math.max(actual + 1, horizonte));
+        }
+    }
+
+    private void retornarDeInterrupciones(int ciclo) {
+        for (int i = 0; i < nucleos.length; i++) {
+            if (finInterrupcion[i] >= 0 && finInterrupcion[i] <= ciclo) {
+                finInterrupcion[i] = -1;
+                nucleos[i].getProcesador().liberarSecuestro(NIVEL_INTERRUPCION);
+            }
+        }
+        solicitarPasada();
+    }
+
+    // ==========================================
+    // MONTÍCULO DE EVENTOS
+    // ==========================================
+
+    private void eliminarEn(int posicion) {
+        Evento eliminado = monticulo[posicion];
+        tamano--;
+        if (posicion != tamano) {
+            colocar(monticulo[tamano], posicion);
+            monticulo[tamano] = null;
+            if (!subir(posicion)) {
+                bajar(posicion);
+            }
+        } else {
+            monticulo[tamano] = null;
+        }
+        eliminado.setPosicion(-1);
+    }
+
+    private boolean subir(int posicion) {
+        boolean movido = false;
+        Evento evento = monticulo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            if (!evento.esAnteriorA(monticulo[padre])) {
+                break;
+            }
+            colocar(monticulo[padre], posicion);
+            posicion = padre;
+            movido = true;
+        }
+        colocar(evento, posicion);
+        return movido;
+    }
+
+    private void bajar(int posicion) {
+        Evento evento = monticulo[posicion];
+        int mitad = tamano >>> 1;
+        while (posicion < mitad) {
+            int hijo = 2 * posicion + 1;
+            int derecho = hijo + 1;
+            if (derecho < tamano && monticulo[derecho].esAnteriorA(monticulo[hijo])) {
+                hijo = derecho;
+            }
+            if (!monticulo[hijo].esAnteriorA(evento)) {
+                break;
+            }
+            colocar(monticulo[hijo], posicion);
+            posicion = hijo;
+        }
+        colocar(evento, posicion);
+    }
+
+    private void colocar(Evento evento, int posicion) {
+        monticulo[posicion] = evento;
+        evento.setPosicion(posicion);
+    }
+}
\ No newline at end of file